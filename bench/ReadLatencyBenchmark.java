@@ -0,0 +1,135 @@
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load test of a blocking read endpoint of a running dashboard
+ *
+ * For each concurrency level, that many clients (one virtual thread each, so
+ * the load generator itself is never the bottleneck) send GET requests back
+ * to back for the warmup and then the measured duration. Reports throughput,
+ * latency percentiles and errors per level. Run it once against the app
+ * started normally and once with --spring.threads.virtual.enabled=true:
+ *
+ *   java bench/ReadLatencyBenchmark.java [--url URL] [--concurrency 50,200,1000]
+ *                                        [--duration-s 20] [--warmup-s 5] [--timeout-s 30]
+ *
+ * The default URL is a keyset page of 100 rows, a JPA query per request.
+ */
+public class ReadLatencyBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String url = "http://localhost:8080/api/datapoints/page?limit=100";
+        int[] levels = {50, 200, 1000, 2000};
+        int durationSeconds = 20;
+        int warmupSeconds = 5;
+        int timeoutSeconds = 30;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--url" -> url = args[i + 1];
+                case "--concurrency" -> levels = Arrays.stream(args[i + 1].split(",")).mapToInt(Integer::parseInt).toArray();
+                case "--duration-s" -> durationSeconds = Integer.parseInt(args[i + 1]);
+                case "--warmup-s" -> warmupSeconds = Integer.parseInt(args[i + 1]);
+                case "--timeout-s" -> timeoutSeconds = Integer.parseInt(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(timeoutSeconds))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(timeoutSeconds))
+                .GET()
+                .build();
+
+        System.out.println("GET " + url);
+        System.out.printf("%12s %10s %10s %10s %10s %10s %10s %8s%n",
+                "concurrency", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "errors");
+        for (int concurrency : levels) {
+            run(client, request, concurrency, warmupSeconds, false);
+            Result result = run(client, request, concurrency, durationSeconds, true);
+            long[] latencies = result.latencies();
+            System.out.printf("%12d %10d %10.1f %10.1f %10.1f %10.1f %10.1f %8d%n",
+                    concurrency, latencies.length, latencies.length / (double) durationSeconds,
+                    percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                    latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1e6, result.errors());
+        }
+    }
+
+    private static Result run(HttpClient client, HttpRequest request, int concurrency, int seconds, boolean record)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        AtomicLong errors = new AtomicLong();
+        List<Future<long[]>> clients = new ArrayList<>(concurrency);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < concurrency; c++) {
+                clients.add(executor.submit(() -> {
+                    long[] samples = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                        long started = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                        } catch (IOException e) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (record) {
+                            if (count == samples.length) {
+                                samples = Arrays.copyOf(samples, count * 2);
+                            }
+                            samples[count++] = System.nanoTime() - started;
+                        }
+                    }
+                    return Arrays.copyOf(samples, count);
+                }));
+            }
+        }
+
+        List<long[]> perClient = new ArrayList<>(concurrency);
+        for (Future<long[]> future : clients) {
+            try {
+                perClient.add(future.get());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Client failed", e.getCause());
+            }
+        }
+        long[] latencies = new long[perClient.stream().mapToInt(samples -> samples.length).sum()];
+        int offset = 0;
+        for (long[] samples : perClient) {
+            System.arraycopy(samples, 0, latencies, offset, samples.length);
+            offset += samples.length;
+        }
+        Arrays.sort(latencies);
+        return new Result(latencies, errors.get());
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)] / 1e6;
+    }
+
+    private record Result(long[] latencies, long errors) {
+    }
+}
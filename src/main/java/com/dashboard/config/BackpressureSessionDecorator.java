@@ -0,0 +1,244 @@
+package com.dashboard.config;
+
+import io.micrometer.core.instrument.Counter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * WebSocket session decorator with a bounded, per-session outbound buffer
+ *
+ * Sends are queued and written by a single drain task on the shared sender
+ * executor, so a slow client only ever blocks its own drain. When the
+ * buffered bytes exceed the limit the configured {@link OverflowStrategy}
+ * is applied; a single write blocking longer than the send time limit
+ * always closes the session.
+ */
+public class BackpressureSessionDecorator extends WebSocketSessionDecorator {
+
+    private static final Logger log = LoggerFactory.getLogger(BackpressureSessionDecorator.class);
+
+    /**
+     * What to do when a session's outbound buffer is over its byte limit
+     */
+    public enum OverflowStrategy {
+        /** Drop the oldest buffered frames */
+        DROP_OLDEST,
+        /** Keep only the newest frame per destination and subscription, then drop oldest */
+        CONFLATE,
+        /** Close the session */
+        DISCONNECT;
+
+        public static OverflowStrategy parse(String value) {
+            return valueOf(value.trim().toUpperCase().replace('-', '_'));
+        }
+    }
+
+    private final Executor senderExecutor;
+    private final long maxBufferedBytes;
+    private final long sendTimeLimitMillis;
+    private final OverflowStrategy overflowStrategy;
+    private final Counter droppedCounter;
+
+    // Guarded by this
+    private final Deque<WebSocketMessage<?>> buffer = new ArrayDeque<>();
+    private long bufferedBytes;
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicLong droppedMessages = new AtomicLong();
+    private final AtomicLong conflatedMessages = new AtomicLong();
+    private volatile long sendStartedAt;
+    private volatile boolean closing;
+
+    public BackpressureSessionDecorator(WebSocketSession delegate, Executor senderExecutor, long maxBufferedBytes,
+                                        long sendTimeLimitMillis, OverflowStrategy overflowStrategy,
+                                        Counter droppedCounter) {
+        super(delegate);
+        this.senderExecutor = senderExecutor;
+        this.maxBufferedBytes = maxBufferedBytes;
+        this.sendTimeLimitMillis = sendTimeLimitMillis;
+        this.overflowStrategy = overflowStrategy;
+        this.droppedCounter = droppedCounter;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        if (closing) {
+            return;
+        }
+
+        long started = sendStartedAt;
+        if (started != 0 && System.currentTimeMillis() - started > sendTimeLimitMillis) {
+            disconnect("send time limit " + sendTimeLimitMillis + " ms exceeded");
+            return;
+        }
+
+        boolean overflow;
+        synchronized (this) {
+            buffer.addLast(message);
+            bufferedBytes += message.getPayloadLength();
+            overflow = bufferedBytes > maxBufferedBytes;
+            if (overflow && overflowStrategy != OverflowStrategy.DISCONNECT) {
+                if (overflowStrategy == OverflowStrategy.CONFLATE) {
+                    conflate();
+                }
+                dropOldest();
+            }
+        }
+        if (overflow && overflowStrategy == OverflowStrategy.DISCONNECT) {
+            disconnect("send buffer limit " + maxBufferedBytes + " bytes exceeded");
+            return;
+        }
+
+        if (draining.compareAndSet(false, true)) {
+            senderExecutor.execute(this::drain);
+        }
+    }
+
+    public synchronized int getQueueDepth() {
+        return buffer.size();
+    }
+
+    public synchronized long getBufferedBytes() {
+        return bufferedBytes;
+    }
+
+    public long getDroppedMessages() {
+        return droppedMessages.get();
+    }
+
+    public long getConflatedMessages() {
+        return conflatedMessages.get();
+    }
+
+    public OverflowStrategy getOverflowStrategy() {
+        return overflowStrategy;
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                WebSocketMessage<?> message = poll();
+                if (message == null) {
+                    draining.set(false);
+                    // A sender may have queued after the poll but before the flag was cleared
+                    if (isBufferEmpty() || !draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                sendStartedAt = System.currentTimeMillis();
+                try {
+                    getDelegate().sendMessage(message);
+                } finally {
+                    sendStartedAt = 0;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Error sending to WebSocket session {}", getId(), e);
+            draining.set(false);
+            disconnect("send failed");
+        }
+    }
+
+    private synchronized WebSocketMessage<?> poll() {
+        if (closing) {
+            return null;
+        }
+        WebSocketMessage<?> message = buffer.pollFirst();
+        if (message != null) {
+            bufferedBytes -= message.getPayloadLength();
+        }
+        return message;
+    }
+
+    private synchronized boolean isBufferEmpty() {
+        return closing || buffer.isEmpty();
+    }
+
+    /**
+     * Remove buffered frames superseded by a newer frame for the same destination and subscription
+     */
+    private void conflate() {
+        Set<String> seen = new HashSet<>();
+        Iterator<WebSocketMessage<?>> newestFirst = buffer.descendingIterator();
+        while (newestFirst.hasNext()) {
+            WebSocketMessage<?> message = newestFirst.next();
+            String key = conflationKey(message);
+            if (key != null && !seen.add(key)) {
+                newestFirst.remove();
+                bufferedBytes -= message.getPayloadLength();
+                conflatedMessages.incrementAndGet();
+                droppedCounter.increment();
+            }
+        }
+    }
+
+    private void dropOldest() {
+        // The newest frame is always kept, even if it alone exceeds the limit
+        while (bufferedBytes > maxBufferedBytes && buffer.size() > 1) {
+            WebSocketMessage<?> message = buffer.pollFirst();
+            bufferedBytes -= message.getPayloadLength();
+            droppedMessages.incrementAndGet();
+            droppedCounter.increment();
+        }
+    }
+
+    private void disconnect(String reason) {
+        synchronized (this) {
+            if (closing) {
+                return;
+            }
+            closing = true;
+            droppedMessages.addAndGet(buffer.size());
+            droppedCounter.increment(buffer.size());
+            buffer.clear();
+            bufferedBytes = 0;
+        }
+        log.warn("Closing slow WebSocket session {}: {}", getId(), reason);
+        try {
+            getDelegate().close(CloseStatus.SESSION_NOT_RELIABLE.withReason(reason));
+        } catch (IOException e) {
+            log.warn("Error closing WebSocket session {}", getId(), e);
+        }
+    }
+
+    /**
+     * Destination plus subscription of a STOMP MESSAGE frame, or null for any other frame
+     */
+    private static String conflationKey(WebSocketMessage<?> message) {
+        if (!(message.getPayload() instanceof String frame) || !frame.startsWith("MESSAGE\n")) {
+            return null;
+        }
+        String destination = null;
+        String subscription = null;
+        int lineStart = frame.indexOf('\n') + 1;
+        while (lineStart < frame.length()) {
+            int lineEnd = frame.indexOf('\n', lineStart);
+            if (lineEnd < 0 || lineEnd == lineStart) {
+                break;
+            }
+            String line = frame.substring(lineStart, lineEnd);
+            if (line.startsWith("destination:")) {
+                destination = line.substring("destination:".length());
+            } else if (line.startsWith("subscription:")) {
+                subscription = line.substring("subscription:".length());
+            }
+            lineStart = lineEnd + 1;
+        }
+        return destination == null ? null : destination + "|" + subscription;
+    }
+}
@@ -24,6 +24,12 @@ public class DataInitializer implements CommandLineRunner {
 
     @Override
     public void run(String... args) throws Exception {
+        // A persistent storage engine may have brought the data back already
+        if (dataPointService.getStatistics().totalCount() > 0) {
+            System.out.println("  Existing data found, skipping the initial test dataset");
+            return;
+        }
+        
         System.out.println("========================================");
         System.out.println("  Loading Initial Test Dataset...");
         System.out.println("========================================");
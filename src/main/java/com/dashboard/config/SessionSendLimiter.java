@@ -0,0 +1,145 @@
+package com.dashboard.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Applies the outbound send policy to every WebSocket session
+ *
+ * Each session is wrapped in a {@link BackpressureSessionDecorator} as it
+ * connects, so frames for a slow client are buffered, dropped, conflated or
+ * the client disconnected according to app.websocket.outbound.* settings.
+ */
+@Component
+public class SessionSendLimiter implements WebSocketHandlerDecoratorFactory {
+
+    private final Map<String, BackpressureSessionDecorator> sessions = new ConcurrentHashMap<>();
+
+    private final ExecutorService senderExecutor;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Counter droppedCounter;
+
+    @Value("${app.websocket.outbound.max-buffered-bytes:524288}")
+    private long maxBufferedBytes;
+
+    @Value("${app.websocket.outbound.send-time-limit-ms:10000}")
+    private long sendTimeLimitMs;
+
+    @Value("${app.websocket.outbound.overflow-strategy:drop-oldest}")
+    private String overflowStrategyName;
+
+    private BackpressureSessionDecorator.OverflowStrategy overflowStrategy;
+
+    public SessionSendLimiter(MeterRegistry meterRegistry,
+                              @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.meterRegistry = meterRegistry;
+        // Writes to slow clients block, so senders are not capped below the session count
+        if (virtualThreads) {
+            this.senderExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ws-send-", 1).factory());
+        } else {
+            AtomicInteger threadCount = new AtomicInteger();
+            this.senderExecutor = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "ws-send-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        this.droppedCounter = Counter.builder("dashboard.websocket.outbound.dropped")
+                .description("Outbound frames dropped or conflated by the per-session send policy")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        overflowStrategy = BackpressureSessionDecorator.OverflowStrategy.parse(overflowStrategyName);
+        Gauge.builder("dashboard.websocket.outbound.queued", this, SessionSendLimiter::getTotalQueueDepth)
+                .description("Frames buffered for all WebSocket sessions")
+                .register(meterRegistry);
+        Gauge.builder("dashboard.websocket.sessions", sessions, Map::size)
+                .description("Open WebSocket sessions")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                BackpressureSessionDecorator decorated = new BackpressureSessionDecorator(session, senderExecutor,
+                        maxBufferedBytes, sendTimeLimitMs, overflowStrategy, droppedCounter);
+                sessions.put(session.getId(), decorated);
+                super.afterConnectionEstablished(decorated);
+            }
+
+            @Override
+            public void handleMessage(WebSocketSession session, WebSocketMessage<?> message) throws Exception {
+                super.handleMessage(decorated(session), message);
+            }
+
+            @Override
+            public void handleTransportError(WebSocketSession session, Throwable exception) throws Exception {
+                super.handleTransportError(decorated(session), exception);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                WebSocketSession decorated = sessions.remove(session.getId());
+                super.afterConnectionClosed(decorated != null ? decorated : session, closeStatus);
+            }
+        };
+    }
+
+    private WebSocketSession decorated(WebSocketSession session) {
+        WebSocketSession decorated = sessions.get(session.getId());
+        return decorated != null ? decorated : session;
+    }
+
+    /**
+     * Outbound queue state of every open session
+     */
+    public List<SessionStats> getSessionStats() {
+        List<SessionStats> stats = new ArrayList<>(sessions.size());
+        sessions.forEach((id, session) -> stats.add(new SessionStats(id, session.getQueueDepth(),
+                session.getBufferedBytes(), session.getDroppedMessages(), session.getConflatedMessages())));
+        return stats;
+    }
+
+    public int getTotalQueueDepth() {
+        int total = 0;
+        for (BackpressureSessionDecorator session : sessions.values()) {
+            total += session.getQueueDepth();
+        }
+        return total;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senderExecutor.shutdownNow();
+    }
+
+    public record SessionStats(String sessionId, int queueDepth, long bufferedBytes,
+                               long droppedMessages, long conflatedMessages) {
+    }
+}
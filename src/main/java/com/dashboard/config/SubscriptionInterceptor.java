@@ -0,0 +1,64 @@
+package com.dashboard.config;
+
+import com.dashboard.service.DataPointBroadcaster;
+import com.dashboard.service.DeltaFrameEncoder;
+import com.dashboard.service.SubscriptionRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Inbound channel interceptor handling per-subscription options
+ * 
+ * A SUBSCRIBE to a data point topic carrying the "coalesce: true" header is
+ * redirected to the coalesced destination, so the client receives batched
+ * array frames under its original subscription id. A SUBSCRIBE whose
+ * "accept" header names the delta content type is redirected to the
+ * delta-encoded destination instead.
+ * 
+ * The final destination of every subscription is recorded in the
+ * {@link SubscriptionRegistry} so publishers can skip idle topics.
+ */
+@Component
+public class SubscriptionInterceptor implements ChannelInterceptor {
+
+    @Autowired
+    private SubscriptionRegistry subscriptionRegistry;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        switch (accessor.getCommand()) {
+            case SUBSCRIBE -> {
+                rewriteDestination(accessor);
+                subscriptionRegistry.subscribe(accessor.getSessionId(), accessor.getSubscriptionId(),
+                        accessor.getDestination());
+            }
+            case UNSUBSCRIBE -> subscriptionRegistry.unsubscribe(accessor.getSessionId(), accessor.getSubscriptionId());
+            case DISCONNECT -> subscriptionRegistry.disconnect(accessor.getSessionId());
+            default -> { }
+        }
+        return message;
+    }
+
+    private void rewriteDestination(StompHeaderAccessor accessor) {
+        String destination = accessor.getDestination();
+        if (!DataPointBroadcaster.isCoalescable(destination)) {
+            return;
+        }
+        String accept = accessor.getFirstNativeHeader("accept");
+        if (accept != null && accept.contains(DeltaFrameEncoder.CONTENT_TYPE)) {
+            accessor.setDestination(DataPointBroadcaster.deltaDestination(destination));
+        } else if ("true".equalsIgnoreCase(accessor.getFirstNativeHeader(DataPointBroadcaster.COALESCE_HEADER))) {
+            accessor.setDestination(DataPointBroadcaster.coalescedDestination(destination));
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package com.dashboard.config;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 /**
  * WebSocket configuration for real-time data updates
@@ -14,6 +19,42 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    @Autowired
+    private SubscriptionInterceptor subscriptionInterceptor;
+
+    @Autowired
+    private SessionSendLimiter sessionSendLimiter;
+
+    @Value("${app.websocket.inbound.core-pool-size:4}")
+    private int inboundCorePoolSize;
+
+    @Value("${app.websocket.inbound.max-pool-size:16}")
+    private int inboundMaxPoolSize;
+
+    @Value("${app.websocket.inbound.queue-capacity:1000}")
+    private int inboundQueueCapacity;
+
+    @Value("${app.websocket.outbound.core-pool-size:4}")
+    private int outboundCorePoolSize;
+
+    @Value("${app.websocket.outbound.max-pool-size:16}")
+    private int outboundMaxPoolSize;
+
+    @Value("${app.websocket.outbound.queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
+    @Value("${app.websocket.outbound.max-buffered-bytes:524288}")
+    private int maxBufferedBytes;
+
+    @Value("${app.websocket.outbound.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs;
+
+    @Value("${app.websocket.inbound.message-size-limit:65536}")
+    private int messageSizeLimit;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // Enable simple broker for destinations prefixed with "/topic"
@@ -26,6 +67,58 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         config.setUserDestinationPrefix("/user");
     }
 
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // Apply per-subscription options such as coalesced delivery
+        registration.interceptors(subscriptionInterceptor);
+        if (virtualThreads) {
+            registration.taskExecutor(virtualThreadExecutor("ws-inbound-"));
+        } else {
+            registration.taskExecutor()
+                    .corePoolSize(inboundCorePoolSize)
+                    .maxPoolSize(inboundMaxPoolSize)
+                    .queueCapacity(inboundQueueCapacity);
+        }
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        if (virtualThreads) {
+            registration.taskExecutor(virtualThreadExecutor("ws-outbound-"));
+        } else {
+            registration.taskExecutor()
+                    .corePoolSize(outboundCorePoolSize)
+                    .maxPoolSize(outboundMaxPoolSize)
+                    .queueCapacity(outboundQueueCapacity);
+        }
+    }
+
+    /**
+     * Channel executor handing every message to a virtual thread: no queue,
+     * so a task never waits for a worker, and idle workers are not pooled
+     * for long since creating one is cheap
+     */
+    private static ThreadPoolTaskExecutor virtualThreadExecutor(String namePrefix) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadFactory(Thread.ofVirtual().name(namePrefix, 1).factory());
+        executor.setCorePoolSize(0);
+        executor.setMaxPoolSize(Integer.MAX_VALUE);
+        executor.setQueueCapacity(0);
+        executor.setKeepAliveSeconds(1);
+        return executor;
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // Per-session buffering and overflow policy for slow clients
+        registration.addDecoratorFactory(sessionSendLimiter);
+        
+        // Hard limits of the built-in session decorator, as a backstop
+        registration.setSendBufferSizeLimit(maxBufferedBytes * 2)
+                    .setSendTimeLimit(sendTimeLimitMs * 2)
+                    .setMessageSizeLimit(messageSizeLimit);
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         // Register STOMP endpoint with SockJS fallback
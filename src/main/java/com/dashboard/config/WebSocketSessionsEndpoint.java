@@ -0,0 +1,25 @@
+package com.dashboard.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Actuator endpoint reporting the outbound queue of each WebSocket session
+ * (/actuator/websocketsessions)
+ */
+@Component
+@Endpoint(id = "websocketsessions")
+public class WebSocketSessionsEndpoint {
+
+    @Autowired
+    private SessionSendLimiter sessionSendLimiter;
+
+    @ReadOperation
+    public List<SessionSendLimiter.SessionStats> sessions() {
+        return sessionSendLimiter.getSessionStats();
+    }
+}
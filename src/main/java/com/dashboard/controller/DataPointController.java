@@ -1,18 +1,42 @@
 package com.dashboard.controller;
 
 import com.dashboard.model.DataPoint;
+import com.dashboard.model.RollupResolution;
+import com.dashboard.repository.DataPointPageQuery;
+import com.dashboard.service.BulkIngestService;
+import com.dashboard.service.CardinalityIndex;
+import com.dashboard.service.DataPointDictionary;
+import com.dashboard.service.DataPointExporter;
 import com.dashboard.service.DataPointService;
+import com.dashboard.service.DataPointStatistics;
 import com.dashboard.service.DataGeneratorService;
+import com.dashboard.service.IngestPipeline;
+import com.dashboard.service.MovingWindowEngine;
+import com.dashboard.service.PercentileIndex;
+import com.dashboard.service.RetentionJanitor;
+import com.dashboard.service.WorkloadGenerator;
+import com.dashboard.service.SeriesColumnStore.DownsampledSeries;
+import com.dashboard.service.SeriesColumnStore.MovingWindowSeries;
+import com.dashboard.service.SeriesColumnStore.SeriesData;
+import com.dashboard.timeseries.BinGrid;
+import com.dashboard.timeseries.ScatterGrid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.zip.GZIPInputStream;
 
 /**
  * REST Controller for DataPoint operations
@@ -29,6 +53,21 @@ public class DataPointController {
     @Autowired
     private DataGeneratorService dataGeneratorService;
     
+    @Autowired
+    private IngestPipeline ingestPipeline;
+    
+    @Autowired
+    private WorkloadGenerator workloadGenerator;
+    
+    @Autowired
+    private DataPointExporter dataPointExporter;
+    
+    @Autowired
+    private BulkIngestService bulkIngestService;
+    
+    @Autowired
+    private RetentionJanitor retentionJanitor;
+    
     /**
      * Get all data points
      */
@@ -54,13 +93,38 @@ public class DataPointController {
     @PostMapping
     public ResponseEntity<DataPoint> createDataPoint(@Valid @RequestBody DataPoint dataPoint) {
         try {
-            DataPoint savedDataPoint = dataPointService.saveDataPoint(dataPoint);
-            return ResponseEntity.status(HttpStatus.CREATED).body(savedDataPoint);
+            DataPoint savedDataPoint = ingestPipeline.ingest(dataPoint);
+            // Asynchronous write-behind acknowledges before the row exists
+            HttpStatus status = savedDataPoint.getId() == null ? HttpStatus.ACCEPTED : HttpStatus.CREATED;
+            return ResponseEntity.status(status).body(savedDataPoint);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
     }
     
+    /**
+     * Accept a data point for asynchronous ingest: it is validated, published
+     * into the ingest ring and acknowledged with 202 Accepted without waiting
+     * for the database. The writer saves it, updates the rollups and
+     * broadcasts it shortly after. A full ring answers 503 at once.
+     * 
+     * 202 is not a durability guarantee: a point that fails to save, even
+     * when retried on its own, or that is still queued when the process
+     * dies, is lost. Failed points are logged and counted in
+     * dashboard.ingest.dropped.
+     */
+    @PostMapping("/async")
+    public ResponseEntity<Void> publishDataPoint(@Valid @RequestBody DataPoint dataPoint) {
+        if (!ingestPipeline.publish(dataPoint)) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .build();
+        }
+        return ResponseEntity.accepted().build();
+    }
+    
     /**
      * Create multiple data points
      */
@@ -74,6 +138,33 @@ public class DataPointController {
         }
     }
     
+    /**
+     * Stream a bulk upload of NDJSON (application/x-ndjson) or CSV (text/csv,
+     * with a header row) records, optionally gzip-compressed. Records are
+     * validated one by one and saved in fixed-size batches; the response
+     * summarizes accepted and rejected records.
+     */
+    @PostMapping(value = "/ingest", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<BulkIngestService.Result> bulkIngest(
+            HttpServletRequest request,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding) {
+        
+        BulkIngestService.Format format = request.getContentType().startsWith("text/csv")
+                ? BulkIngestService.Format.CSV
+                : BulkIngestService.Format.NDJSON;
+        try {
+            InputStream body = request.getInputStream();
+            if ("gzip".equalsIgnoreCase(contentEncoding)) {
+                body = new GZIPInputStream(body, 64 * 1024);
+            }
+            return ResponseEntity.ok(bulkIngestService.ingest(format, body));
+        } catch (IOException e) {
+            // Unreadable stream or gzip header
+            return ResponseEntity.badRequest()
+                    .body(new BulkIngestService.Result(0, 0, List.of("Error reading upload: " + e.getMessage())));
+        }
+    }
+    
     /**
      * Update data point
      */
@@ -103,6 +194,78 @@ public class DataPointController {
         }
     }
     
+    /**
+     * Get a page of data points, filtered and sorted on the server. Pass the
+     * returned nextCursor back as cursor to fetch the following page.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<DataPointPageQuery.Page> getDataPointPage(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String source,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(defaultValue = "timestamp") String sort,
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        
+        if (limit < 1 || limit > 1000) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        try {
+            DataPointPageQuery query = DataPointPageQuery.of(
+                    category == null || category.isBlank() ? null : category,
+                    source == null || source.isBlank() ? null : source,
+                    startTime, endTime,
+                    DataPointPageQuery.SortField.parse(sort),
+                    "asc".equalsIgnoreCase(direction),
+                    cursor);
+            return ResponseEntity.ok(dataPointService.getDataPointPage(query, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * Stream every data point in a time range as NDJSON or CSV, optionally
+     * gzip-compressed. The window is either startTime/endTime or a relative
+     * timeRange such as 1h, 24h or 7d.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportDataPoints(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(defaultValue = "24h") String timeRange,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        
+        DataPointExporter.Format exportFormat;
+        try {
+            exportFormat = DataPointExporter.Format.parse(format);
+            if (endTime == null) {
+                endTime = LocalDateTime.now();
+            }
+            if (startTime == null) {
+                startTime = endTime.minus(parseTimeRange(timeRange));
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        String exportCategory = category == null || category.isBlank() ? null : category;
+        LocalDateTime from = startTime;
+        LocalDateTime to = endTime;
+        String filename = "datapoints." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out -> dataPointExporter.export(exportFormat, gzip, exportCategory, from, to, out);
+        
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, gzip ? "application/gzip" : exportFormat.getContentType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+    
     /**
      * Get data points by category
      */
@@ -131,28 +294,266 @@ public class DataPointController {
     }
     
     /**
-     * Get data points within time range
+     * Get (timestamp, value) series within time range
      */
     @GetMapping("/timerange")
-    public ResponseEntity<List<DataPoint>> getDataPointsInTimeRange(
+    public ResponseEntity<List<SeriesData>> getDataPointsInTimeRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime) {
         
-        List<DataPoint> dataPoints = dataPointService.getDataPointsInTimeRange(startTime, endTime);
-        return ResponseEntity.ok(dataPoints);
+        List<SeriesData> series = dataPointService.getSeriesInTimeRange(startTime, endTime);
+        return ResponseEntity.ok(series);
     }
     
     /**
-     * Get data points by category within time range
+     * Get (timestamp, value) series of a category within time range
      */
     @GetMapping("/timerange/{category}")
-    public ResponseEntity<List<DataPoint>> getDataPointsByCategoryInTimeRange(
+    public ResponseEntity<List<SeriesData>> getDataPointsByCategoryInTimeRange(
             @PathVariable String category,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime) {
         
-        List<DataPoint> dataPoints = dataPointService.getDataPointsByCategoryInTimeRange(category, startTime, endTime);
-        return ResponseEntity.ok(dataPoints);
+        List<SeriesData> series = dataPointService.getSeriesByCategoryInTimeRange(category, startTime, endTime);
+        return ResponseEntity.ok(series);
+    }
+    
+    /**
+     * Get downsampled series for charting, one per series of the category (or
+     * all categories), or only the one given by label. The window is either
+     * startTime/endTime or a relative timeRange such as 1h, 24h or 7d.
+     */
+    @GetMapping("/time-series")
+    public ResponseEntity<List<DownsampledSeries>> getTimeSeries(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String label,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(defaultValue = "24h") String timeRange,
+            @RequestParam(defaultValue = "800") int maxPoints,
+            @RequestParam(defaultValue = "lttb") String method) {
+        
+        if (category != null && category.isBlank()) {
+            category = null;
+        }
+        if (label != null && (label.isBlank() || category == null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        try {
+            if (endTime == null) {
+                endTime = LocalDateTime.now();
+            }
+            if (startTime == null) {
+                startTime = endTime.minus(parseTimeRange(timeRange));
+            }
+            
+            List<DownsampledSeries> series = dataPointService.getDownsampledSeries(
+                    category, label, startTime, endTime, method, Math.min(maxPoints, 10000));
+            return ResponseEntity.ok(series);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * Get the points of a category (or all categories), or of one series when
+     * label is given, binned into a fixed grid for scatter and heatmap charts.
+     * Layouts: hour-value (hour of day by value), hour-weekday (hour of day
+     * by day of week) and time-value (columns time buckets by value). The
+     * value axis has rows buckets between minValue and maxValue, which default
+     * to the bounds of the data. Only non-empty cells are returned, so the
+     * response is bounded by the grid, not by the number of points.
+     */
+    @GetMapping("/scatter")
+    public ResponseEntity<ScatterGrid> getScatter(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String label,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(defaultValue = "24h") String timeRange,
+            @RequestParam(defaultValue = "hour-value") String layout,
+            @RequestParam(defaultValue = "48") int columns,
+            @RequestParam(defaultValue = "20") int rows,
+            @RequestParam(required = false) Double minValue,
+            @RequestParam(required = false) Double maxValue) {
+        
+        if (category != null && category.isBlank()) {
+            category = null;
+        }
+        if (label != null && (label.isBlank() || category == null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (columns < 1 || columns > 200 || rows < 1 || rows > 200) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (minValue != null && maxValue != null && minValue >= maxValue) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        try {
+            if (endTime == null) {
+                endTime = LocalDateTime.now();
+            }
+            if (startTime == null) {
+                startTime = endTime.minus(parseTimeRange(timeRange));
+            }
+            
+            ScatterGrid grid = dataPointService.getScatterGrid(category, label, startTime, endTime,
+                    BinGrid.Layout.of(layout), columns, rows, minValue, maxValue);
+            return ResponseEntity.ok(grid);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * Get quantiles (by default p50, p95 and p99) of the values of a category
+     * (or all categories), or of one series when label is given, within a time
+     * range. Answered from per-bucket sketches within 1% relative error; the
+     * range is widened to whole minutes, or whole hours when older than the
+     * minute buckets kept.
+     */
+    @GetMapping("/percentiles")
+    public ResponseEntity<PercentileIndex.Percentiles> getPercentiles(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String label,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(defaultValue = "24h") String timeRange,
+            @RequestParam(defaultValue = "0.5,0.95,0.99") double[] q) {
+        
+        if (category != null && category.isBlank()) {
+            category = null;
+        }
+        if (label != null && (label.isBlank() || category == null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (q.length == 0 || q.length > 100) {
+            return ResponseEntity.badRequest().build();
+        }
+        for (double quantile : q) {
+            if (!(quantile >= 0 && quantile <= 1)) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        
+        try {
+            if (endTime == null) {
+                endTime = LocalDateTime.now();
+            }
+            if (startTime == null) {
+                startTime = endTime.minus(parseTimeRange(timeRange));
+            }
+            if (startTime.isAfter(endTime)) {
+                return ResponseEntity.badRequest().build();
+            }
+            
+            return ResponseEntity.ok(dataPointService.getPercentiles(category, label, startTime, endTime, q));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * Get the estimated number of distinct sources or labels of a category
+     * (or all categories) within a time range, and per hour or day when an
+     * interval is given. Estimated with HyperLogLog, so the standard error is
+     * fixed (about 2%) and counts include deleted points; the range is widened
+     * to whole hours.
+     */
+    @GetMapping("/cardinality")
+    public ResponseEntity<CardinalityIndex.Cardinality> getCardinality(
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "source") String dimension,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(defaultValue = "24h") String timeRange,
+            @RequestParam(defaultValue = "none") String interval) {
+        
+        if (category != null && category.isBlank()) {
+            category = null;
+        }
+        
+        try {
+            RollupResolution resolution = switch (interval.toLowerCase()) {
+                case "none" -> null;
+                case "hour" -> RollupResolution.HOUR;
+                case "day" -> RollupResolution.DAY;
+                default -> throw new IllegalArgumentException("Unknown interval: " + interval);
+            };
+            if (endTime == null) {
+                endTime = LocalDateTime.now();
+            }
+            if (startTime == null) {
+                startTime = endTime.minus(parseTimeRange(timeRange));
+            }
+            if (startTime.isAfter(endTime)) {
+                return ResponseEntity.badRequest().build();
+            }
+            
+            return ResponseEntity.ok(dataPointService.getCardinality(category,
+                    CardinalityIndex.Dimension.of(dimension), startTime, endTime, resolution));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * Get a moving average with rolling statistics for each series of a
+     * category (or all categories), or for one series when label is given.
+     * Each sample carries the SMA, EMA, standard deviation, min and max of
+     * the last {@code window} points of its series; at most maxPoints
+     * samples are returned per series.
+     */
+    @GetMapping("/moving-average")
+    public ResponseEntity<List<MovingWindowSeries>> getMovingAverage(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String label,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(defaultValue = "24h") String timeRange,
+            @RequestParam(defaultValue = "20") int window,
+            @RequestParam(defaultValue = "800") int maxPoints) {
+        
+        if (category != null && category.isBlank()) {
+            category = null;
+        }
+        if (label != null && (label.isBlank() || category == null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (window < 1 || window > 10000 || maxPoints < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        try {
+            if (endTime == null) {
+                endTime = LocalDateTime.now();
+            }
+            if (startTime == null) {
+                startTime = endTime.minus(parseTimeRange(timeRange));
+            }
+            
+            List<MovingWindowSeries> series = dataPointService.getMovingWindowSeries(
+                    category, label, startTime, endTime, window, Math.min(maxPoints, 10000));
+            return ResponseEntity.ok(series);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * Get the live window statistics of every series of a category (or all
+     * categories) for each configured window size
+     */
+    @GetMapping("/moving-average/latest")
+    public ResponseEntity<List<MovingWindowEngine.WindowStats>> getLatestWindowStats(
+            @RequestParam(required = false) String category) {
+        
+        if (category != null && category.isBlank()) {
+            category = null;
+        }
+        return ResponseEntity.ok(dataPointService.getLatestWindowStats(category));
     }
     
     /**
@@ -173,6 +574,24 @@ public class DataPointController {
         return ResponseEntity.ok(sources);
     }
     
+    /**
+     * Get the categories, sources or labels in use, with point counts and
+     * first/last-seen times
+     */
+    @GetMapping("/dictionary/{kind}")
+    public ResponseEntity<List<DataPointDictionary.Entry>> getDictionary(@PathVariable String kind) {
+        DataPointDictionary.Kind dictionaryKind = switch (kind) {
+            case "categories" -> DataPointDictionary.Kind.CATEGORY;
+            case "sources" -> DataPointDictionary.Kind.SOURCE;
+            case "labels" -> DataPointDictionary.Kind.LABEL;
+            default -> null;
+        };
+        if (dictionaryKind == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(dataPointService.getDictionary(dictionaryKind));
+    }
+    
     /**
      * Get aggregated data by category
      */
@@ -205,12 +624,27 @@ public class DataPointController {
     }
     
     /**
-     * Search data points
+     * Search data points by the words of their label or description, newest
+     * first. Every word must match; with prefix=true the last one also
+     * matches longer words. Pass the returned nextCursor back as cursor to
+     * fetch the following page.
      */
     @GetMapping("/search")
-    public ResponseEntity<List<DataPoint>> searchDataPoints(@RequestParam String q) {
-        List<DataPoint> dataPoints = dataPointService.searchDataPoints(q);
-        return ResponseEntity.ok(dataPoints);
+    public ResponseEntity<DataPointPageQuery.Page> searchDataPoints(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "true") boolean prefix,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        
+        if (limit < 1 || limit > 1000) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        try {
+            return ResponseEntity.ok(dataPointService.searchDataPoints(q, prefix, limit, cursor));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     /**
@@ -222,6 +656,15 @@ public class DataPointController {
         return ResponseEntity.ok(latestPoints);
     }
     
+    /**
+     * Get latest data point of each series (label) in a category
+     */
+    @GetMapping("/latest/{category}")
+    public ResponseEntity<List<DataPoint>> getLatestBySeries(@PathVariable String category) {
+        List<DataPoint> latestPoints = dataPointService.getLatestBySeries(category);
+        return ResponseEntity.ok(latestPoints);
+    }
+    
     /**
      * Get count by category
      */
@@ -231,6 +674,14 @@ public class DataPointController {
         return ResponseEntity.ok(counts);
     }
     
+    /**
+     * Get total, today's and per-category counts, plus distinct categories and sources
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<DataPointStatistics.Stats> getStatistics() {
+        return ResponseEntity.ok(dataPointService.getStatistics());
+    }
+    
     /**
      * Generate sample data burst (for testing)
      */
@@ -250,7 +701,76 @@ public class DataPointController {
     }
     
     /**
-     * Clean up old data points
+     * State and counters of the synthetic workload generator
+     */
+    @GetMapping("/workload")
+    public ResponseEntity<WorkloadGenerator.Status> getWorkload() {
+        return ResponseEntity.ok(workloadGenerator.getStatus());
+    }
+    
+    /**
+     * Start (or restart) the synthetic workload; parameters left out keep
+     * their current or configured values
+     */
+    @PostMapping("/workload/start")
+    public ResponseEntity<WorkloadGenerator.Status> startWorkload(
+            @RequestParam(required = false) Double pointsPerSecond,
+            @RequestParam(required = false) Integer series,
+            @RequestParam(required = false) Integer producers,
+            @RequestParam(required = false) String profile,
+            @RequestParam(required = false) Double burstFactor,
+            @RequestParam(required = false) Long burstEveryMs,
+            @RequestParam(required = false) Long burstLengthMs,
+            @RequestParam(required = false) Long diurnalPeriodMs,
+            @RequestParam(required = false) Double diurnalAmplitude,
+            @RequestParam(required = false) Long seed) {
+        try {
+            WorkloadGenerator.Settings settings = workloadGenerator.getSettings().with(pointsPerSecond, series,
+                    producers, profile, burstFactor, burstEveryMs, burstLengthMs,
+                    diurnalPeriodMs, diurnalAmplitude, seed);
+            return ResponseEntity.ok(workloadGenerator.start(settings));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * Change the rate or profile of the running workload in place; a change
+     * of series, producers or seed restarts it
+     */
+    @PostMapping("/workload/retune")
+    public ResponseEntity<WorkloadGenerator.Status> retuneWorkload(
+            @RequestParam(required = false) Double pointsPerSecond,
+            @RequestParam(required = false) Integer series,
+            @RequestParam(required = false) Integer producers,
+            @RequestParam(required = false) String profile,
+            @RequestParam(required = false) Double burstFactor,
+            @RequestParam(required = false) Long burstEveryMs,
+            @RequestParam(required = false) Long burstLengthMs,
+            @RequestParam(required = false) Long diurnalPeriodMs,
+            @RequestParam(required = false) Double diurnalAmplitude,
+            @RequestParam(required = false) Long seed) {
+        try {
+            WorkloadGenerator.Settings settings = workloadGenerator.getSettings().with(pointsPerSecond, series,
+                    producers, profile, burstFactor, burstEveryMs, burstLengthMs,
+                    diurnalPeriodMs, diurnalAmplitude, seed);
+            return ResponseEntity.ok(workloadGenerator.retune(settings));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * Stop the synthetic workload and return its final counters
+     */
+    @PostMapping("/workload/stop")
+    public ResponseEntity<WorkloadGenerator.Status> stopWorkload() {
+        return ResponseEntity.ok(workloadGenerator.stop());
+    }
+    
+    /**
+     * Clean up old data points, dropping whole days older than the given
+     * number of days
      */
     @DeleteMapping("/cleanup/{days}")
     public ResponseEntity<String> cleanupOldData(@PathVariable int days) {
@@ -259,11 +779,32 @@ public class DataPointController {
                 return ResponseEntity.badRequest().body("Days must be greater than 0");
             }
             
-            dataPointService.cleanupOldDataPoints(days);
-            return ResponseEntity.ok("Cleaned up data older than " + days + " days");
+            RetentionJanitor.Result result = retentionJanitor.purge(days);
+            return ResponseEntity.ok("Cleaned up " + result.pointsDeleted() + " data points in "
+                    + result.partitionsDropped() + " days older than " + days + " days");
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                                .body("Error cleaning up data: " + e.getMessage());
         }
     }
+    
+    /**
+     * Parse a relative time range such as 30m, 24h or 7d
+     */
+    private static Duration parseTimeRange(String timeRange) {
+        if (timeRange == null || timeRange.length() < 2) {
+            throw new IllegalArgumentException("Invalid time range: " + timeRange);
+        }
+        long amount = Long.parseLong(timeRange.substring(0, timeRange.length() - 1));
+        switch (timeRange.charAt(timeRange.length() - 1)) {
+            case 'm':
+                return Duration.ofMinutes(amount);
+            case 'h':
+                return Duration.ofHours(amount);
+            case 'd':
+                return Duration.ofDays(amount);
+            default:
+                throw new IllegalArgumentException("Invalid time range: " + timeRange);
+        }
+    }
 }
\ No newline at end of file
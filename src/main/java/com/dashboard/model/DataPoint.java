@@ -16,12 +16,21 @@ import java.time.LocalDateTime;
 @Table(name = "data_points", indexes = {
     @Index(name = "idx_category", columnList = "category"),
     @Index(name = "idx_timestamp", columnList = "timestamp"),
-    @Index(name = "idx_source", columnList = "source")
+    @Index(name = "idx_source", columnList = "source"),
+    @Index(name = "idx_timestamp_id", columnList = "timestamp, id"),
+    @Index(name = "idx_category_timestamp_id", columnList = "category, timestamp, id")
 })
 public class DataPoint {
     
+    /**
+     * Ids Hibernate reserves per sequence call
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+    
+    // Pooled sequence so Hibernate can assign ids up front and batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "data_point_seq")
+    @SequenceGenerator(name = "data_point_seq", sequenceName = "data_points_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     
     @NotBlank(message = "Category is required")
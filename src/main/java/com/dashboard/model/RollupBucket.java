@@ -0,0 +1,145 @@
+package com.dashboard.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity holding pre-aggregated count/sum/min/max of one series over one
+ * time bucket
+ */
+@Entity
+@Table(name = "data_rollups",
+    uniqueConstraints = @UniqueConstraint(name = "uk_rollup_bucket",
+        columnNames = {"resolution", "category", "label", "bucket_start"}),
+    indexes = {
+        @Index(name = "idx_rollup_category_time", columnList = "resolution, category, bucket_start"),
+        @Index(name = "idx_rollup_time", columnList = "resolution, bucket_start")
+    })
+public class RollupBucket {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private RollupResolution resolution;
+    
+    @Column(nullable = false, length = 100)
+    private String category;
+    
+    @Column(nullable = false, length = 200)
+    private String label;
+    
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+    
+    @Column(name = "point_count", nullable = false)
+    private long pointCount;
+    
+    @Column(name = "sum_value", nullable = false)
+    private double sumValue;
+    
+    @Column(name = "min_value")
+    private Double minValue; // null while the bucket is empty
+    
+    @Column(name = "max_value")
+    private Double maxValue;
+    
+    // Default constructor
+    public RollupBucket() {
+    }
+    
+    // Constructor for an empty bucket
+    public RollupBucket(RollupResolution resolution, String category, String label, LocalDateTime bucketStart) {
+        this.resolution = resolution;
+        this.category = category;
+        this.label = label;
+        this.bucketStart = bucketStart;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public RollupResolution getResolution() {
+        return resolution;
+    }
+    
+    public void setResolution(RollupResolution resolution) {
+        this.resolution = resolution;
+    }
+    
+    public String getCategory() {
+        return category;
+    }
+    
+    public void setCategory(String category) {
+        this.category = category;
+    }
+    
+    public String getLabel() {
+        return label;
+    }
+    
+    public void setLabel(String label) {
+        this.label = label;
+    }
+    
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+    
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+    
+    public long getPointCount() {
+        return pointCount;
+    }
+    
+    public void setPointCount(long pointCount) {
+        this.pointCount = pointCount;
+    }
+    
+    public double getSumValue() {
+        return sumValue;
+    }
+    
+    public void setSumValue(double sumValue) {
+        this.sumValue = sumValue;
+    }
+    
+    public Double getMinValue() {
+        return minValue;
+    }
+    
+    public void setMinValue(Double minValue) {
+        this.minValue = minValue;
+    }
+    
+    public Double getMaxValue() {
+        return maxValue;
+    }
+    
+    public void setMaxValue(Double maxValue) {
+        this.maxValue = maxValue;
+    }
+    
+    @Override
+    public String toString() {
+        return "RollupBucket{" +
+                "resolution=" + resolution +
+                ", category='" + category + '\'' +
+                ", label='" + label + '\'' +
+                ", bucketStart=" + bucketStart +
+                ", pointCount=" + pointCount +
+                '}';
+    }
+}
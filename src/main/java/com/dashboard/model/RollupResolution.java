@@ -0,0 +1,38 @@
+package com.dashboard.model;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Bucket widths maintained for pre-aggregated rollups
+ */
+public enum RollupResolution {
+    MINUTE(ChronoUnit.MINUTES),
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    RollupResolution(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public ChronoUnit getUnit() {
+        return unit;
+    }
+
+    /**
+     * Start of the bucket containing the timestamp
+     */
+    public LocalDateTime bucketStart(LocalDateTime timestamp) {
+        return timestamp.truncatedTo(unit);
+    }
+
+    /**
+     * Start of the first bucket that begins at or after the timestamp
+     */
+    public LocalDateTime firstBucketFrom(LocalDateTime timestamp) {
+        LocalDateTime start = bucketStart(timestamp);
+        return start.isBefore(timestamp) ? start.plus(1, unit) : start;
+    }
+}
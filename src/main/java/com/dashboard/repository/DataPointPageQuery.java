@@ -0,0 +1,105 @@
+package com.dashboard.repository;
+
+import com.dashboard.model.DataPoint;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Filter, sort order and position of one keyset-paginated listing request
+ *
+ * Pages are ordered by (sort field, id) and continue strictly after the
+ * (key, id) of the last row of the previous page, carried in an opaque
+ * cursor token. Deep pages therefore seek straight to their first row
+ * instead of skipping an OFFSET.
+ */
+public record DataPointPageQuery(String category, String source,
+                                 LocalDateTime startTime, LocalDateTime endTime,
+                                 SortField sortField, boolean ascending,
+                                 Object afterKey, Long afterId) {
+
+    /**
+     * Sortable columns; the listing is always tie-broken by id
+     */
+    public enum SortField {
+        TIMESTAMP("timestamp"),
+        VALUE("value"),
+        CATEGORY("category");
+
+        private final String property;
+
+        SortField(String property) {
+            this.property = property;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+
+        public static SortField parse(String value) {
+            return valueOf(value.trim().toUpperCase());
+        }
+
+        Object keyOf(DataPoint dataPoint) {
+            return switch (this) {
+                case TIMESTAMP -> dataPoint.getTimestamp();
+                case VALUE -> dataPoint.getValue();
+                case CATEGORY -> dataPoint.getCategory();
+            };
+        }
+
+        Object parseKey(String key) {
+            return switch (this) {
+                case TIMESTAMP -> LocalDateTime.parse(key);
+                case VALUE -> Double.valueOf(key);
+                case CATEGORY -> key;
+            };
+        }
+    }
+
+    /**
+     * One page of results and the cursor of the next page, null on the last page
+     */
+    public record Page(List<DataPoint> items, String nextCursor) {
+    }
+
+    /**
+     * Build a query, resuming after the given cursor token if it is not null
+     *
+     * @throws IllegalArgumentException if the cursor is malformed or was
+     *         issued for a different sort order
+     */
+    public static DataPointPageQuery of(String category, String source,
+                                        LocalDateTime startTime, LocalDateTime endTime,
+                                        SortField sortField, boolean ascending, String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return new DataPointPageQuery(category, source, startTime, endTime, sortField, ascending, null, null);
+        }
+
+        String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        String[] parts = decoded.split(":", 4);
+        if (parts.length != 4 || !parts[0].equals(sortField.name()) || !parts[1].equals(direction(ascending))) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort order");
+        }
+        try {
+            return new DataPointPageQuery(category, source, startTime, endTime, sortField, ascending,
+                    sortField.parseKey(parts[3]), Long.valueOf(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+
+    /**
+     * Cursor token resuming after the given row
+     */
+    public String cursorAfter(DataPoint last) {
+        String token = sortField.name() + ":" + direction(ascending) + ":" + last.getId() + ":" + sortField.keyOf(last);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String direction(boolean ascending) {
+        return ascending ? "asc" : "desc";
+    }
+}
@@ -1,52 +1,55 @@
 package com.dashboard.repository;
 
 import com.dashboard.model.DataPoint;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for DataPoint entity
  * Provides data access methods for dashboard data points
  */
 @Repository
-public interface DataPointRepository extends JpaRepository<DataPoint, Long> {
+public interface DataPointRepository extends JpaRepository<DataPoint, Long>, DataPointRepositoryCustom {
     
     /**
      * Find data points by category
      */
     List<DataPoint> findByCategoryOrderByTimestampDesc(String category);
     
-    /**
-     * Find data points within a time range
-     */
-    List<DataPoint> findByTimestampBetweenOrderByTimestampDesc(
-            LocalDateTime startTime, LocalDateTime endTime);
-    
-    /**
-     * Find data points by category within a time range
-     */
-    List<DataPoint> findByCategoryAndTimestampBetweenOrderByTimestampDesc(
-            String category, LocalDateTime startTime, LocalDateTime endTime);
-    
     /**
      * Find data points by source
      */
     List<DataPoint> findBySourceOrderByTimestampDesc(String source);
     
     /**
-     * Find recent data points (last N records)
+     * Stream all data points in time order, for rebuilding in-memory indexes
      */
-    List<DataPoint> findTop100ByOrderByTimestampDesc();
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT d FROM DataPoint d ORDER BY d.timestamp")
+    Stream<DataPoint> streamAllByOrderByTimestamp();
     
     /**
-     * Find recent data points by category
+     * Stream data points in [startTime, endTime), optionally of one category,
+     * in time order, for exports
      */
-    List<DataPoint> findTop50ByCategoryOrderByTimestampDesc(String category);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT d FROM DataPoint d " +
+           "WHERE d.timestamp >= :startTime AND d.timestamp < :endTime " +
+           "AND (:category IS NULL OR d.category = :category) " +
+           "ORDER BY d.timestamp, d.id")
+    Stream<DataPoint> streamByTimeRange(@Param("category") String category,
+                                        @Param("startTime") LocalDateTime startTime,
+                                        @Param("endTime") LocalDateTime endTime);
     
     /**
      * Get distinct categories
@@ -88,32 +91,44 @@ public interface DataPointRepository extends JpaRepository<DataPoint, Long> {
                                           @Param("startTime") LocalDateTime startTime);
     
     /**
-     * Delete old data points (older than specified date)
+     * Count and sum data points older than the cutoff, by category, source and label
      */
-    void deleteByTimestampBefore(LocalDateTime cutoffDate);
+    @Query("SELECT d.category, d.source, d.label, COUNT(d), SUM(d.value) FROM DataPoint d " +
+           "WHERE d.timestamp < :cutoffDate " +
+           "GROUP BY d.category, d.source, d.label")
+    List<Object[]> countBySeriesBefore(@Param("cutoffDate") LocalDateTime cutoffDate);
     
     /**
-     * Count data points by category
+     * Count and sum data points in [startTime, endTime), by category and label
      */
-    @Query("SELECT d.category, COUNT(d) FROM DataPoint d GROUP BY d.category")
-    List<Object[]> countByCategory();
+    @Query("SELECT d.category, d.label, COUNT(d), SUM(d.value) FROM DataPoint d " +
+           "WHERE d.timestamp >= :startTime AND d.timestamp < :endTime " +
+           "GROUP BY d.category, d.label")
+    List<Object[]> sumBySeriesBetween(@Param("startTime") LocalDateTime startTime,
+                                      @Param("endTime") LocalDateTime endTime);
     
     /**
-     * Get latest data point for each category
+     * Count data points in [startTime, endTime)
      */
-    @Query("SELECT d1 FROM DataPoint d1 " +
-           "WHERE d1.timestamp = (" +
-           "    SELECT MAX(d2.timestamp) FROM DataPoint d2 " +
-           "    WHERE d2.category = d1.category" +
-           ")")
-    List<DataPoint> findLatestByCategory();
+    long countByTimestampGreaterThanEqualAndTimestampBefore(LocalDateTime startTime, LocalDateTime endTime);
     
     /**
-     * Search data points by label or description
+     * Delete data points older than the cutoff in one set-based statement
      */
-    @Query("SELECT d FROM DataPoint d " +
-           "WHERE LOWER(d.label) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
-           "OR LOWER(d.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
-           "ORDER BY d.timestamp DESC")
-    List<DataPoint> searchByLabelOrDescription(@Param("searchTerm") String searchTerm);
+    @Modifying
+    @Query("DELETE FROM DataPoint d WHERE d.timestamp < :cutoffDate")
+    int deleteByTimestampBefore(@Param("cutoffDate") LocalDateTime cutoffDate);
+    
+    /**
+     * Timestamp of the oldest data point, or null if there are none
+     */
+    @Query("SELECT MIN(d.timestamp) FROM DataPoint d")
+    LocalDateTime findOldestTimestamp();
+    
+    /**
+     * Timestamp of the oldest data point at or after the given time, or null
+     * if there are none
+     */
+    @Query("SELECT MIN(d.timestamp) FROM DataPoint d WHERE d.timestamp >= :startTime")
+    LocalDateTime findOldestTimestampFrom(@Param("startTime") LocalDateTime startTime);
 }
\ No newline at end of file
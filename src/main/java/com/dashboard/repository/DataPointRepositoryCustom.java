@@ -0,0 +1,25 @@
+package com.dashboard.repository;
+
+import com.dashboard.model.DataPoint;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Data access for DataPoint queries that are built dynamically
+ */
+public interface DataPointRepositoryCustom {
+
+    /**
+     * Fetch up to limit rows matching the query's filters, in (sort field, id)
+     * order, starting strictly after the query's cursor position
+     */
+    List<DataPoint> findPage(DataPointPageQuery query, int limit);
+
+    /**
+     * Timestamp of the limit-th data point in time order within [from,
+     * cutoff), read as a keyset range from the index, or null if there are
+     * fewer
+     */
+    LocalDateTime findTimestampAfterCount(LocalDateTime from, LocalDateTime cutoff, int limit);
+}
@@ -0,0 +1,81 @@
+package com.dashboard.repository;
+
+import com.dashboard.model.DataPoint;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of {@link DataPointRepositoryCustom}, picked up by Spring
+ * Data as a fragment of {@link DataPointRepository}
+ */
+public class DataPointRepositoryImpl implements DataPointRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<DataPoint> findPage(DataPointPageQuery query, int limit) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+
+        if (query.category() != null) {
+            conditions.add("d.category = :category");
+            parameters.put("category", query.category());
+        }
+        if (query.source() != null) {
+            conditions.add("d.source = :source");
+            parameters.put("source", query.source());
+        }
+        if (query.startTime() != null) {
+            conditions.add("d.timestamp >= :startTime");
+            parameters.put("startTime", query.startTime());
+        }
+        if (query.endTime() != null) {
+            conditions.add("d.timestamp <= :endTime");
+            parameters.put("endTime", query.endTime());
+        }
+
+        // Sort property comes from the SortField whitelist, never from the request
+        String key = "d." + query.sortField().getProperty();
+        String comparison = query.ascending() ? ">" : "<";
+        String direction = query.ascending() ? "ASC" : "DESC";
+        if (query.afterId() != null) {
+            // (key, id) > (afterKey, afterId), with a plain range bound on key the index can seek on
+            conditions.add(key + " " + comparison + "= :afterKey AND (" + key + " " + comparison
+                    + " :afterKey OR d.id " + comparison + " :afterId)");
+            parameters.put("afterKey", query.afterKey());
+            parameters.put("afterId", query.afterId());
+        }
+
+        StringBuilder jpql = new StringBuilder("SELECT d FROM DataPoint d");
+        if (!conditions.isEmpty()) {
+            jpql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        jpql.append(" ORDER BY ").append(key).append(' ').append(direction)
+            .append(", d.id ").append(direction);
+
+        TypedQuery<DataPoint> typedQuery = entityManager.createQuery(jpql.toString(), DataPoint.class);
+        parameters.forEach(typedQuery::setParameter);
+        return typedQuery.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public LocalDateTime findTimestampAfterCount(LocalDateTime from, LocalDateTime cutoff, int limit) {
+        List<LocalDateTime> timestamps = entityManager.createQuery(
+                        "SELECT d.timestamp FROM DataPoint d "
+                                + "WHERE d.timestamp >= :from AND d.timestamp < :cutoff ORDER BY d.timestamp",
+                        LocalDateTime.class)
+                .setParameter("from", from)
+                .setParameter("cutoff", cutoff)
+                .setMaxResults(limit)
+                .getResultList();
+        return timestamps.size() < limit ? null : timestamps.get(limit - 1);
+    }
+}
@@ -0,0 +1,131 @@
+package com.dashboard.repository;
+
+import com.dashboard.model.RollupBucket;
+import com.dashboard.model.RollupResolution;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for RollupBucket entity
+ * Provides pre-aggregated reads in place of GROUP BY scans over data_points
+ */
+@Repository
+public interface RollupBucketRepository extends JpaRepository<RollupBucket, Long> {
+    
+    /**
+     * Fold a delta into an existing bucket in a single statement, so concurrent
+     * writers serialize on the row lock instead of overwriting each other.
+     * The bucket updates are native SQL: Hibernate renders parameters in
+     * double arithmetic as "cast(? as float($p))", which H2 rejects.
+     */
+    @Modifying
+    @Query(value = "UPDATE data_rollups SET " +
+           "point_count = point_count + :count, " +
+           "sum_value = sum_value + :sum, " +
+           "min_value = CASE WHEN min_value IS NULL OR :min < min_value THEN :min ELSE min_value END, " +
+           "max_value = CASE WHEN max_value IS NULL OR :max > max_value THEN :max ELSE max_value END " +
+           "WHERE resolution = :resolution AND category = :category " +
+           "AND label = :label AND bucket_start = :bucketStart", nativeQuery = true)
+    int accumulate(@Param("resolution") String resolution,
+                   @Param("category") String category,
+                   @Param("label") String label,
+                   @Param("bucketStart") LocalDateTime bucketStart,
+                   @Param("count") long count,
+                   @Param("sum") double sum,
+                   @Param("min") double min,
+                   @Param("max") double max);
+    
+    /**
+     * Take a deleted point out of a bucket. Min and max cannot be undone
+     * incrementally and keep their previous bounds.
+     */
+    @Modifying
+    @Query(value = "UPDATE data_rollups SET " +
+           "point_count = point_count - 1, " +
+           "sum_value = sum_value - :value " +
+           "WHERE resolution = :resolution AND category = :category " +
+           "AND label = :label AND bucket_start = :bucketStart AND point_count > 0", nativeQuery = true)
+    int subtract(@Param("resolution") String resolution,
+                 @Param("category") String category,
+                 @Param("label") String label,
+                 @Param("bucketStart") LocalDateTime bucketStart,
+                 @Param("value") double value);
+    
+    /**
+     * Take the count and sum of several points out of a bucket, leaving min
+     * and max at their previous bounds
+     */
+    @Modifying
+    @Query(value = "UPDATE data_rollups SET " +
+           "point_count = point_count - :count, " +
+           "sum_value = sum_value - :sum " +
+           "WHERE resolution = :resolution AND category = :category " +
+           "AND label = :label AND bucket_start = :bucketStart", nativeQuery = true)
+    int subtractAll(@Param("resolution") String resolution,
+                    @Param("category") String category,
+                    @Param("label") String label,
+                    @Param("bucketStart") LocalDateTime bucketStart,
+                    @Param("count") long count,
+                    @Param("sum") double sum);
+    
+    /**
+     * Delete every bucket of a resolution that starts before the given time
+     */
+    @Modifying
+    @Query("DELETE FROM RollupBucket r WHERE r.resolution = :resolution AND r.bucketStart < :startTime")
+    int deleteByResolutionAndBucketStartBefore(@Param("resolution") RollupResolution resolution,
+                                               @Param("startTime") LocalDateTime startTime);
+    
+    /**
+     * Per-bucket aggregates of a category across its labels
+     * Returns [bucketStart, avg, min, max, count]
+     */
+    @Query("SELECT r.bucketStart, SUM(r.sumValue) / SUM(r.pointCount), MIN(r.minValue), " +
+           "MAX(r.maxValue), SUM(r.pointCount) " +
+           "FROM RollupBucket r " +
+           "WHERE r.resolution = :resolution AND r.category = :category " +
+           "AND r.bucketStart >= :startTime AND r.pointCount > 0 " +
+           "GROUP BY r.bucketStart " +
+           "ORDER BY r.bucketStart")
+    List<Object[]> aggregateByBucket(@Param("resolution") RollupResolution resolution,
+                                     @Param("category") String category,
+                                     @Param("startTime") LocalDateTime startTime);
+    
+    /**
+     * Value bounds of the hour buckets overlapping a range, for a category
+     * and label, or all of them when null. Bounds may be wider than the
+     * points, as deletes do not shrink min and max.
+     * Returns a single [min, max] row, with nulls if there are no buckets
+     */
+    @Query("SELECT MIN(r.minValue), MAX(r.maxValue) " +
+           "FROM RollupBucket r " +
+           "WHERE r.resolution = com.dashboard.model.RollupResolution.HOUR " +
+           "AND (:category IS NULL OR r.category = :category) " +
+           "AND (:label IS NULL OR r.label = :label) " +
+           "AND r.bucketStart >= :hourStart AND r.bucketStart <= :endTime AND r.pointCount > 0")
+    List<Object[]> findValueBounds(@Param("category") String category,
+                                   @Param("label") String label,
+                                   @Param("hourStart") LocalDateTime hourStart,
+                                   @Param("endTime") LocalDateTime endTime);
+    
+    /**
+     * Sum and count per category: whole hours from hourStart on, plus the
+     * minutes between minuteStart and hourStart
+     * Returns [category, sum, count] ordered by sum descending
+     */
+    @Query("SELECT r.category, SUM(r.sumValue) as totalValue, SUM(r.pointCount) " +
+           "FROM RollupBucket r " +
+           "WHERE (r.resolution = com.dashboard.model.RollupResolution.HOUR AND r.bucketStart >= :hourStart) " +
+           "OR (r.resolution = com.dashboard.model.RollupResolution.MINUTE " +
+           "    AND r.bucketStart >= :minuteStart AND r.bucketStart < :hourStart) " +
+           "GROUP BY r.category " +
+           "ORDER BY totalValue DESC")
+    List<Object[]> aggregateByCategory(@Param("minuteStart") LocalDateTime minuteStart,
+                                       @Param("hourStart") LocalDateTime hourStart);
+}
@@ -0,0 +1,227 @@
+package com.dashboard.service;
+
+import com.dashboard.model.DataPoint;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streaming bulk ingest of NDJSON or CSV uploads
+ *
+ * Records are parsed and validated one at a time and saved in fixed-size
+ * batches, each in its own transaction, so memory use is bounded by the
+ * batch size rather than the upload size. Invalid records are counted and
+ * skipped; a batch that fails to save is counted as rejected as a whole.
+ */
+@Service
+public class BulkIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkIngestService.class);
+
+    /**
+     * Most error messages kept in a summary
+     */
+    private static final int MAX_ERRORS = 100;
+
+    @Autowired
+    private DataPointService dataPointService;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${app.ingest.bulk-batch-size:1000}")
+    private int batchSize;
+
+    private final ObjectReader jsonReader;
+
+    public BulkIngestService(ObjectMapper objectMapper) {
+        this.jsonReader = objectMapper.readerFor(DataPoint.class);
+    }
+
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+
+    /**
+     * Accepted and rejected record counts of one upload, with the first errors
+     */
+    public record Result(long accepted, long rejected, List<String> errors) {
+    }
+
+    /**
+     * Ingest an upload. A read error part-way stops the upload; records
+     * validated before it are still saved and reported.
+     */
+    public Result ingest(Format format, InputStream input) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024);
+        Summary summary = new Summary();
+        try {
+            if (format == Format.CSV) {
+                ingestCsv(reader, summary);
+            } else {
+                ingestNdjson(reader, summary);
+            }
+        } catch (IOException e) {
+            summary.error("upload aborted: " + e.getMessage());
+        }
+        summary.flush();
+        return new Result(summary.accepted, summary.rejected, summary.errors);
+    }
+
+    private void ingestNdjson(BufferedReader reader, Summary summary) throws IOException {
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                summary.add(lineNumber, jsonReader.readValue(line));
+            } catch (JsonProcessingException e) {
+                summary.reject(lineNumber, "malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private void ingestCsv(BufferedReader reader, Summary summary) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(), i);
+        }
+
+        List<String> record;
+        while ((record = csv.next()) != null) {
+            // Record 1 is the header
+            long recordNumber = csv.getRecordNumber();
+            try {
+                summary.add(recordNumber, fromCsv(record, columns));
+            } catch (RuntimeException e) {
+                summary.reject(recordNumber, e.getMessage());
+            }
+        }
+    }
+
+    private static DataPoint fromCsv(List<String> record, Map<String, Integer> columns) {
+        DataPoint dataPoint = new DataPoint();
+        dataPoint.setCategory(field(record, columns, "category"));
+        dataPoint.setLabel(field(record, columns, "label"));
+        dataPoint.setUnit(field(record, columns, "unit"));
+        dataPoint.setSource(field(record, columns, "source"));
+        dataPoint.setDescription(field(record, columns, "description"));
+        dataPoint.setMetadata(field(record, columns, "metadata"));
+
+        String value = field(record, columns, "value");
+        if (value != null) {
+            try {
+                dataPoint.setValue(Double.valueOf(value));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("invalid value '" + value + "'");
+            }
+        }
+        String timestamp = field(record, columns, "timestamp");
+        if (timestamp != null) {
+            try {
+                dataPoint.setTimestamp(LocalDateTime.parse(timestamp));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("invalid timestamp '" + timestamp + "'");
+            }
+        }
+        return dataPoint;
+    }
+
+    private static String field(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Validated records of the current batch plus running totals
+     */
+    private class Summary {
+
+        private final List<DataPoint> batch = new ArrayList<>(batchSize);
+        private long firstRecordInBatch;
+        private long accepted;
+        private long rejected;
+        private final List<String> errors = new ArrayList<>();
+
+        void add(long recordNumber, DataPoint dataPoint) {
+            if (dataPoint == null) {
+                reject(recordNumber, "empty record");
+                return;
+            }
+            Set<ConstraintViolation<DataPoint>> violations = validator.validate(dataPoint);
+            if (!violations.isEmpty()) {
+                ConstraintViolation<DataPoint> first = violations.iterator().next();
+                reject(recordNumber, first.getPropertyPath() + ": " + first.getMessage());
+                return;
+            }
+
+            // Ids are always assigned by the database
+            dataPoint.setId(null);
+            if (batch.isEmpty()) {
+                firstRecordInBatch = recordNumber;
+            }
+            batch.add(dataPoint);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long recordNumber, String reason) {
+            rejected++;
+            error("record " + recordNumber + ": " + reason);
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                dataPointService.saveDataPoints(new ArrayList<>(batch));
+                accepted += batch.size();
+            } catch (RuntimeException e) {
+                rejected += batch.size();
+                error("records " + firstRecordInBatch + "+: batch of " + batch.size() + " failed: " + e.getMessage());
+                log.warn("Error saving bulk ingest batch of {}", batch.size(), e);
+            }
+            batch.clear();
+        }
+
+        void error(String message) {
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(message);
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.dashboard.service;
+
+import com.dashboard.model.DataPoint;
+import com.dashboard.model.RollupResolution;
+import com.dashboard.timeseries.HyperLogLog;
+import com.dashboard.timeseries.Timestamps;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+
+/**
+ * HyperLogLog sketches of the distinct sources and labels seen per category
+ * per hour and day bucket
+ *
+ * Each committed point adds its source and label to the sketches of its
+ * category's buckets, at a fixed cost of 2^precision bytes per sketch. A
+ * range is answered by merging whole days in the middle and hours at the
+ * edges, so it is widened to whole hours. Sketches count what was seen:
+ * deletes do not lower the estimates, and retention drops the buckets that
+ * end before the cutoff.
+ */
+@Component
+public class CardinalityIndex implements DataPointIndex {
+
+    private static final long HOUR_MILLIS = 3_600_000L;
+    private static final long DAY_MILLIS = 24 * HOUR_MILLIS;
+
+    /**
+     * Dimensions whose distinct values are counted
+     */
+    public enum Dimension {
+        SOURCE(DataPoint::getSource),
+        LABEL(DataPoint::getLabel);
+
+        private final Function<DataPoint, String> extractor;
+
+        Dimension(Function<DataPoint, String> extractor) {
+            this.extractor = extractor;
+        }
+
+        public static Dimension of(String name) {
+            for (Dimension dimension : values()) {
+                if (dimension.name().equalsIgnoreCase(name)) {
+                    return dimension;
+                }
+            }
+            throw new IllegalArgumentException("Unknown dimension: " + name);
+        }
+    }
+
+    /**
+     * Estimated distinct values of a dimension over a range, in total and,
+     * if an interval was requested, per hour or day
+     */
+    public record Cardinality(String category, String dimension, LocalDateTime startTime, LocalDateTime endTime,
+                              long estimate, double standardError, List<BucketEstimate> buckets) {
+    }
+
+    public record BucketEstimate(LocalDateTime bucketStart, long estimate) {
+    }
+
+    @Value("${app.cardinality.precision:11}")
+    private int precision;
+
+    private final Map<SketchKey, NavigableMap<Long, HyperLogLog>> sketches = new ConcurrentHashMap<>();
+
+    @Override
+    public void add(DataPoint dataPoint) {
+        if (dataPoint.getTimestamp() == null || dataPoint.getCategory() == null) {
+            return;
+        }
+        long timestamp = Timestamps.toEpochMillis(dataPoint.getTimestamp());
+        for (Dimension dimension : Dimension.values()) {
+            String value = dimension.extractor.apply(dataPoint);
+            if (value == null) {
+                continue;
+            }
+            for (RollupResolution resolution : new RollupResolution[] {RollupResolution.HOUR, RollupResolution.DAY}) {
+                long width = width(resolution);
+                HyperLogLog sketch = sketches
+                        .computeIfAbsent(new SketchKey(dataPoint.getCategory(), dimension, resolution),
+                                key -> new ConcurrentSkipListMap<>())
+                        .computeIfAbsent(Math.floorDiv(timestamp, width) * width,
+                                start -> new HyperLogLog(precision));
+                synchronized (sketch) {
+                    sketch.add(value);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void remove(DataPoint dataPoint) {
+        // Distinct counts cannot be decremented; the estimates count what was seen
+    }
+
+    @Override
+    public void removeOlderThan(LocalDateTime cutoff) {
+        long cutoffMillis = Timestamps.toEpochMillis(cutoff);
+        sketches.forEach((key, buckets) -> buckets.headMap(cutoffMillis - width(key.resolution()), true).clear());
+    }
+
+    /**
+     * Distinct values of the dimension among the points of a category (or
+     * all categories, if null) within a time range. With an hour or day
+     * interval, the estimate of every non-empty bucket is listed as well.
+     */
+    public Cardinality cardinality(String category, Dimension dimension, LocalDateTime startTime,
+                                   LocalDateTime endTime, RollupResolution interval) {
+        long from = Math.floorDiv(Timestamps.toEpochMillis(startTime), HOUR_MILLIS) * HOUR_MILLIS;
+        long to = Math.floorDiv(Timestamps.toEpochMillis(endTime), HOUR_MILLIS) * HOUR_MILLIS + HOUR_MILLIS;
+        long firstDay = -Math.floorDiv(-from, DAY_MILLIS) * DAY_MILLIS;
+        long lastDay = Math.floorDiv(to, DAY_MILLIS) * DAY_MILLIS;
+
+        HyperLogLog total = new HyperLogLog(precision);
+        if (firstDay < lastDay) {
+            mergeInto(total, category, dimension, RollupResolution.HOUR, from, firstDay);
+            mergeInto(total, category, dimension, RollupResolution.DAY, firstDay, lastDay);
+            mergeInto(total, category, dimension, RollupResolution.HOUR, lastDay, to);
+        } else {
+            mergeInto(total, category, dimension, RollupResolution.HOUR, from, to);
+        }
+
+        List<BucketEstimate> buckets = new ArrayList<>();
+        if (interval != null) {
+            long width = width(interval);
+            TreeMap<Long, HyperLogLog> perBucket = new TreeMap<>();
+            forEachSketch(category, dimension, interval, Math.floorDiv(from, width) * width, to,
+                    (bucketStart, sketch) -> perBucket.computeIfAbsent(bucketStart,
+                            start -> new HyperLogLog(precision)).merge(sketch));
+            perBucket.forEach((bucketStart, sketch) -> buckets.add(
+                    new BucketEstimate(Timestamps.fromEpochMillis(bucketStart), sketch.estimate())));
+        }
+
+        return new Cardinality(category, dimension.name().toLowerCase(), Timestamps.fromEpochMillis(from),
+                Timestamps.fromEpochMillis(to), total.estimate(), total.standardError(), buckets);
+    }
+
+    private void mergeInto(HyperLogLog target, String category, Dimension dimension,
+                           RollupResolution resolution, long from, long to) {
+        forEachSketch(category, dimension, resolution, from, to, (bucketStart, sketch) -> target.merge(sketch));
+    }
+
+    /**
+     * Visit the sketches of the matching categories with a bucket start in
+     * [from, to), each under its lock
+     */
+    private void forEachSketch(String category, Dimension dimension, RollupResolution resolution,
+                               long from, long to, BucketVisitor visitor) {
+        if (from >= to) {
+            return;
+        }
+        sketches.forEach((key, buckets) -> {
+            if (key.dimension() != dimension || key.resolution() != resolution
+                    || category != null && !key.category().equals(category)) {
+                return;
+            }
+            buckets.subMap(from, true, to, false).forEach((bucketStart, sketch) -> {
+                synchronized (sketch) {
+                    visitor.accept(bucketStart, sketch);
+                }
+            });
+        });
+    }
+
+    private static long width(RollupResolution resolution) {
+        return resolution.getUnit().getDuration().toMillis();
+    }
+
+    @FunctionalInterface
+    private interface BucketVisitor {
+        void accept(long bucketStart, HyperLogLog sketch);
+    }
+
+    private record SketchKey(String category, Dimension dimension, RollupResolution resolution) {
+    }
+}
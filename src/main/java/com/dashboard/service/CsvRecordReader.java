@@ -0,0 +1,106 @@
+package com.dashboard.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 reader returning one record at a time
+ *
+ * Supports quoted fields with embedded delimiters, doubled quotes and line
+ * breaks, and both LF and CRLF record separators. The caller supplies a
+ * buffered reader; nothing beyond the current record is held in memory.
+ */
+class CsvRecordReader {
+
+    private final Reader reader;
+    private int pending = -2;
+    private long recordNumber;
+
+    CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Next record, or null at end of input. Blank lines are skipped.
+     */
+    List<String> next() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStarted = false;
+
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field in record " + (recordNumber + 1));
+                }
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = following;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+                fieldStarted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStarted = true;
+            } else if (c == '\n' || c == '\r' || c == -1) {
+                if (c == '\r') {
+                    int following = read();
+                    if (following != '\n') {
+                        pending = following;
+                    }
+                }
+                if (!fieldStarted && field.length() == 0 && fields.isEmpty()) {
+                    // Blank line
+                    if (c == -1) {
+                        return null;
+                    }
+                    c = read();
+                    if (c == -1) {
+                        return null;
+                    }
+                    continue;
+                }
+                fields.add(field.toString());
+                recordNumber++;
+                return fields;
+            } else {
+                field.append((char) c);
+                fieldStarted = true;
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * Number of records returned so far
+     */
+    long getRecordNumber() {
+        return recordNumber;
+    }
+
+    private int read() throws IOException {
+        if (pending != -2) {
+            int c = pending;
+            pending = -2;
+            return c;
+        }
+        return reader.read();
+    }
+}
@@ -2,28 +2,35 @@ package com.dashboard.service;
 
 import com.dashboard.model.DataPoint;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.Random;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Service for generating sample real-time data
  * This simulates various data sources for demonstration purposes
+ *
+ * Runs every app.data-generation.interval ms (the traffic, server and sales
+ * feeds at 2, 3 and 6 times that) unless app.data-generation.enabled is
+ * false. For sustained high-rate load, see {@link WorkloadGenerator}.
  */
 @Service
 public class DataGeneratorService {
     
     @Autowired
-    private DataPointService dataPointService;
+    private IngestPipeline ingestPipeline;
     
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
     
-    private final Random random = new Random();
+    @Value("${app.data-generation.enabled:true}")
+    private boolean enabled;
     
     private final String[] categories = {
         "Sales", "Website Traffic", "Server Performance", "User Engagement", 
@@ -35,17 +42,20 @@ public class DataGeneratorService {
     };
     
     /**
-     * Generate sample data every 5 seconds
+     * Generate sample data every interval
      */
-    @Scheduled(fixedRate = 5000)
+    @Scheduled(fixedRateString = "${app.data-generation.interval:5000}")
     public void generateSampleData() {
+        if (!enabled) {
+            return;
+        }
         try {
             // Generate 1-3 random data points
             int count = ThreadLocalRandom.current().nextInt(1, 4);
             
             for (int i = 0; i < count; i++) {
                 DataPoint dataPoint = generateRandomDataPoint();
-                dataPointService.saveDataPoint(dataPoint);
+                ingestPipeline.ingest(dataPoint);
             }
             
             // Send system status update
@@ -57,10 +67,13 @@ public class DataGeneratorService {
     }
     
     /**
-     * Generate website traffic data every 10 seconds
+     * Generate website traffic data every 2 intervals
      */
-    @Scheduled(fixedRate = 10000)
+    @Scheduled(fixedRateString = "#{${app.data-generation.interval:5000} * 2}")
     public void generateWebsiteTrafficData() {
+        if (!enabled) {
+            return;
+        }
         try {
             // Page views
             DataPoint pageViews = new DataPoint(
@@ -92,9 +105,9 @@ public class DataGeneratorService {
                 "%"
             );
             
-            dataPointService.saveDataPoint(pageViews);
-            dataPointService.saveDataPoint(uniqueVisitors);
-            dataPointService.saveDataPoint(bounceRate);
+            ingestPipeline.ingest(pageViews);
+            ingestPipeline.ingest(uniqueVisitors);
+            ingestPipeline.ingest(bounceRate);
             
         } catch (Exception e) {
             System.err.println("Error generating website traffic data: " + e.getMessage());
@@ -102,10 +115,13 @@ public class DataGeneratorService {
     }
     
     /**
-     * Generate server performance data every 15 seconds
+     * Generate server performance data every 3 intervals
      */
-    @Scheduled(fixedRate = 15000)
+    @Scheduled(fixedRateString = "#{${app.data-generation.interval:5000} * 3}")
     public void generateServerPerformanceData() {
+        if (!enabled) {
+            return;
+        }
         try {
             // CPU Usage
             DataPoint cpuUsage = new DataPoint(
@@ -137,9 +153,9 @@ public class DataGeneratorService {
                 "ms"
             );
             
-            dataPointService.saveDataPoint(cpuUsage);
-            dataPointService.saveDataPoint(memoryUsage);
-            dataPointService.saveDataPoint(responseTime);
+            ingestPipeline.ingest(cpuUsage);
+            ingestPipeline.ingest(memoryUsage);
+            ingestPipeline.ingest(responseTime);
             
         } catch (Exception e) {
             System.err.println("Error generating server performance data: " + e.getMessage());
@@ -147,10 +163,13 @@ public class DataGeneratorService {
     }
     
     /**
-     * Generate sales data every 30 seconds
+     * Generate sales data every 6 intervals
      */
-    @Scheduled(fixedRate = 30000)
+    @Scheduled(fixedRateString = "#{${app.data-generation.interval:5000} * 6}")
     public void generateSalesData() {
+        if (!enabled) {
+            return;
+        }
         try {
             // Total Sales
             DataPoint totalSales = new DataPoint(
@@ -182,9 +201,9 @@ public class DataGeneratorService {
                 "%"
             );
             
-            dataPointService.saveDataPoint(totalSales);
-            dataPointService.saveDataPoint(orders);
-            dataPointService.saveDataPoint(conversionRate);
+            ingestPipeline.ingest(totalSales);
+            ingestPipeline.ingest(orders);
+            ingestPipeline.ingest(conversionRate);
             
         } catch (Exception e) {
             System.err.println("Error generating sales data: " + e.getMessage());
@@ -195,6 +214,7 @@ public class DataGeneratorService {
      * Generate a random data point
      */
     private DataPoint generateRandomDataPoint() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
         String category = categories[random.nextInt(categories.length)];
         String source = sources[random.nextInt(sources.length)];
         
@@ -258,9 +278,10 @@ public class DataGeneratorService {
      * Generate burst of data for testing (manual trigger)
      */
     public void generateDataBurst(int count) {
+        List<DataPoint> dataPoints = new ArrayList<>(count);
         for (int i = 0; i < count; i++) {
-            DataPoint dataPoint = generateRandomDataPoint();
-            dataPointService.saveDataPoint(dataPoint);
+            dataPoints.add(generateRandomDataPoint());
         }
+        ingestPipeline.ingestAll(dataPoints);
     }
 }
\ No newline at end of file
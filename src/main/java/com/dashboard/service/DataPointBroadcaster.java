@@ -0,0 +1,322 @@
+package com.dashboard.service;
+
+import com.dashboard.model.DataPoint;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes data point updates to WebSocket topics
+ * 
+ * Legacy subscribers of /topic/datapoints and /topic/datapoints/{category}
+ * receive one frame per point. Clients that subscribe with the
+ * {@value #COALESCE_HEADER} header are moved to the matching coalesced
+ * destination, which receives one JSON array per batching window holding
+ * every point published to that topic during the window. Clients that
+ * subscribe with an "accept" header of {@value DeltaFrameEncoder#CONTENT_TYPE}
+ * get the same windows as compact delta frames instead.
+ * 
+ * Destinations without live subscribers are skipped before any
+ * serialization, and a payload sent to several destinations is serialized
+ * once and shared.
+ */
+@Service
+public class DataPointBroadcaster {
+    
+    private static final Logger log = LoggerFactory.getLogger(DataPointBroadcaster.class);
+    
+    /**
+     * STOMP SUBSCRIBE header that opts a subscription into coalesced frames
+     */
+    public static final String COALESCE_HEADER = "coalesce";
+    
+    public static final String DATAPOINTS_TOPIC = "/topic/datapoints";
+    
+    public static final String COALESCED_PREFIX = "/topic/coalesced";
+    
+    public static final String DELTA_PREFIX = "/topic/delta";
+    
+    private static final MimeType JSON = MimeType.valueOf("application/json");
+    
+    private static final MimeType DELTA = MimeType.valueOf(DeltaFrameEncoder.CONTENT_TYPE);
+    
+    private final SimpMessagingTemplate messagingTemplate;
+    
+    private final ObjectMapper objectMapper;
+    
+    private final SubscriptionRegistry subscriptionRegistry;
+    
+    private final MeterRegistry meterRegistry;
+    
+    // Points gathered during the current window, by logical topic
+    private final Map<String, Queue<DataPoint>> pending = new ConcurrentHashMap<>();
+    
+    private final Map<String, DeltaFrameEncoder> deltaEncoders = new ConcurrentHashMap<>();
+    
+    private final Counter singleFrames;
+    private final Counter coalescedFrames;
+    private final Counter deltaFrames;
+    private final DistributionSummary batchSize;
+    private final Counter skippedFrames;
+    private final Counter sharedSerializations;
+    private final AtomicLong framesSent = new AtomicLong();
+    
+    private volatile double framesPerSecond;
+    private long rateWindowStart = System.nanoTime();
+    private long rateWindowFrames;
+    
+    @Value("${app.broadcast.max-batch-size:1000}")
+    private int maxBatchSize;
+    
+    @Value("${app.broadcast.delta.keyframe-interval-ms:5000}")
+    private long keyframeIntervalMs;
+    
+    public DataPointBroadcaster(SimpMessagingTemplate messagingTemplate, ObjectMapper objectMapper,
+                                SubscriptionRegistry subscriptionRegistry, MeterRegistry meterRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.subscriptionRegistry = subscriptionRegistry;
+        this.meterRegistry = meterRegistry;
+        this.singleFrames = Counter.builder("dashboard.broadcast.frames")
+                .tag("mode", "single")
+                .description("Data point frames published per point")
+                .register(meterRegistry);
+        this.coalescedFrames = Counter.builder("dashboard.broadcast.frames")
+                .tag("mode", "coalesced")
+                .description("Coalesced data point array frames published")
+                .register(meterRegistry);
+        this.deltaFrames = Counter.builder("dashboard.broadcast.frames")
+                .tag("mode", "delta")
+                .description("Delta-encoded data point frames published")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("dashboard.broadcast.batch.size")
+                .description("Points per coalesced frame")
+                .register(meterRegistry);
+        this.skippedFrames = Counter.builder("dashboard.broadcast.skipped")
+                .description("Frames not serialized or published because the destination had no subscribers")
+                .register(meterRegistry);
+        this.sharedSerializations = Counter.builder("dashboard.broadcast.serializations.saved")
+                .description("Serializations avoided by sharing one encoded payload across destinations")
+                .register(meterRegistry);
+    }
+    
+    @PostConstruct
+    public void registerGauges() {
+        Gauge.builder("dashboard.broadcast.frames.rate", this, DataPointBroadcaster::getFramesPerSecond)
+                .description("Data point frames published per second")
+                .baseUnit("frames/s")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Coalesced destination a subscription to the given topic is moved to
+     */
+    public static String coalescedDestination(String destination) {
+        return COALESCED_PREFIX + destination;
+    }
+    
+    /**
+     * Delta-encoded destination a subscription to the given topic is moved to
+     */
+    public static String deltaDestination(String destination) {
+        return DELTA_PREFIX + destination;
+    }
+    
+    /**
+     * Whether subscriptions to the destination may opt into coalescing
+     */
+    public static boolean isCoalescable(String destination) {
+        if (destination == null) {
+            return false;
+        }
+        if (destination.equals(DATAPOINTS_TOPIC)) {
+            return true;
+        }
+        if (!destination.startsWith(DATAPOINTS_TOPIC + "/")) {
+            return false;
+        }
+        String category = destination.substring(DATAPOINTS_TOPIC.length() + 1);
+        return !category.equals("batch") && !category.equals("deleted") && !category.equals("updated");
+    }
+    
+    /**
+     * Publish a single saved point
+     */
+    public void publish(DataPoint dataPoint) {
+        sendShared(dataPoint, DATAPOINTS_TOPIC, DATAPOINTS_TOPIC + "/" + dataPoint.getCategory());
+        enqueue(dataPoint);
+    }
+    
+    /**
+     * Publish a batch of saved points
+     */
+    public void publishBatch(List<DataPoint> dataPoints) {
+        send(DATAPOINTS_TOPIC + "/batch", dataPoints);
+        dataPoints.forEach(this::enqueue);
+    }
+    
+    /**
+     * Publish a batch of saved points that were submitted one by one: the
+     * batch frame, plus one frame per point on the per-point topics
+     */
+    public void publishEach(List<DataPoint> dataPoints) {
+        send(DATAPOINTS_TOPIC + "/batch", dataPoints);
+        dataPoints.forEach(this::publish);
+    }
+    
+    /**
+     * Publish an arbitrary payload to a data point topic, e.g. updates and deletions
+     */
+    public void send(String destination, Object payload) {
+        sendShared(payload, destination);
+    }
+    
+    /**
+     * Send one array frame and one delta frame per topic with everything
+     * gathered during the window
+     */
+    @Scheduled(fixedDelayString = "${app.broadcast.window-ms:100}")
+    public void flush() {
+        pending.forEach((topic, queue) -> {
+            List<DataPoint> batch = new ArrayList<>();
+            DataPoint next;
+            while ((next = queue.poll()) != null) {
+                batch.add(next);
+                if (batch.size() == maxBatchSize) {
+                    sendWindow(topic, batch);
+                    batch = new ArrayList<>();
+                }
+            }
+            if (!batch.isEmpty()) {
+                sendWindow(topic, batch);
+            }
+        });
+        updateRate();
+    }
+    
+    public double getFramesPerSecond() {
+        return framesPerSecond;
+    }
+    
+    /**
+     * Serialize the payload once and send it to every destination that has subscribers
+     */
+    private void sendShared(Object payload, String... destinations) {
+        byte[] body = null;
+        for (String destination : destinations) {
+            if (!subscriptionRegistry.hasSubscribers(destination)) {
+                skippedFrames.increment();
+                continue;
+            }
+            if (body == null) {
+                body = serialize(payload);
+                if (body == null) {
+                    return;
+                }
+            } else {
+                sharedSerializations.increment();
+            }
+            sendEncoded(destination, body, JSON);
+            singleFrames.increment();
+            framesSent.incrementAndGet();
+        }
+    }
+    
+    private void enqueue(DataPoint dataPoint) {
+        enqueue(DATAPOINTS_TOPIC, dataPoint);
+        enqueue(DATAPOINTS_TOPIC + "/" + dataPoint.getCategory(), dataPoint);
+    }
+    
+    private void enqueue(String topic, DataPoint dataPoint) {
+        if (!subscriptionRegistry.hasSubscribers(coalescedDestination(topic))
+                && !subscriptionRegistry.hasSubscribers(deltaDestination(topic))) {
+            return;
+        }
+        pending.computeIfAbsent(topic, key -> new ConcurrentLinkedQueue<>()).add(dataPoint);
+    }
+    
+    private void sendWindow(String topic, List<DataPoint> batch) {
+        String destination = coalescedDestination(topic);
+        if (subscriptionRegistry.hasSubscribers(destination)) {
+            byte[] body = serialize(batch);
+            if (body != null) {
+                sendEncoded(destination, body, JSON);
+                coalescedFrames.increment();
+                batchSize.record(batch.size());
+                framesSent.incrementAndGet();
+            }
+        } else {
+            skippedFrames.increment();
+        }
+        
+        if (subscriptionRegistry.hasSubscribers(deltaDestination(topic))) {
+            sendDelta(topic, batch);
+        } else {
+            skippedFrames.increment();
+        }
+    }
+    
+    private void sendDelta(String topic, List<DataPoint> batch) {
+        DeltaFrameEncoder encoder = deltaEncoders.computeIfAbsent(topic,
+                key -> new DeltaFrameEncoder(keyframeIntervalMs));
+        byte[] body = serialize(encoder.encode(batch));
+        if (body == null) {
+            return;
+        }
+        sendEncoded(deltaDestination(topic), body, DELTA);
+        deltaFrames.increment();
+        framesSent.incrementAndGet();
+    }
+    
+    private byte[] serialize(Object payload) {
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            log.error("Error serializing broadcast payload", e);
+            return null;
+        }
+    }
+    
+    /**
+     * Send a pre-serialized body as-is, bypassing the template's message converters
+     */
+    private void sendEncoded(String destination, byte[] body, MimeType contentType) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(contentType);
+        accessor.setLeaveMutable(true);
+        messagingTemplate.send(destination, MessageBuilder.createMessage(body, accessor.getMessageHeaders()));
+    }
+    
+    private synchronized void updateRate() {
+        long now = System.nanoTime();
+        long elapsed = now - rateWindowStart;
+        if (elapsed >= 1_000_000_000L) {
+            long total = framesSent.get();
+            framesPerSecond = (total - rateWindowFrames) * 1e9 / elapsed;
+            rateWindowFrames = total;
+            rateWindowStart = now;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.dashboard.service;
+
+import com.dashboard.model.DataPoint;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * In-process dictionary of the categories, sources and labels in use
+ *
+ * Each entry carries its point count and the first and last point
+ * timestamps seen. Entries are kept current by {@link DataPointService}
+ * after each committed write and disappear when their count drops to
+ * zero; first/last-seen are observation bounds and are not narrowed by
+ * deletes. The dictionary is loaded by the startup index rebuild;
+ * until then {@link #isLoaded()} is false and callers fall back to the
+ * database.
+ */
+@Component
+public class DataPointDictionary {
+
+    public enum Kind {
+        CATEGORY,
+        SOURCE,
+        LABEL
+    }
+
+    public record Entry(String name, long count, LocalDateTime firstSeen, LocalDateTime lastSeen) {
+    }
+
+    private final Map<String, MutableEntry> categories = new TreeMap<>();
+    private final Map<String, MutableEntry> sources = new TreeMap<>();
+    private final Map<String, MutableEntry> labels = new TreeMap<>();
+
+    private volatile boolean loaded;
+
+    private final MeterRegistry meterRegistry;
+
+    public DataPointDictionary(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void registerGauges() {
+        for (Kind kind : Kind.values()) {
+            Gauge.builder("dashboard.dictionary.size", this, dictionary -> dictionary.size(kind))
+                    .tag("kind", kind.name().toLowerCase())
+                    .description("Distinct values in the data point dictionary")
+                    .register(meterRegistry);
+        }
+    }
+
+    public synchronized void add(DataPoint dataPoint) {
+        add(categories, dataPoint.getCategory(), dataPoint.getTimestamp());
+        add(sources, dataPoint.getSource(), dataPoint.getTimestamp());
+        add(labels, dataPoint.getLabel(), dataPoint.getTimestamp());
+    }
+
+    public synchronized void remove(DataPoint dataPoint) {
+        remove(categories, dataPoint.getCategory(), 1);
+        remove(sources, dataPoint.getSource(), 1);
+        remove(labels, dataPoint.getLabel(), 1);
+    }
+
+    /**
+     * Account for a bulk cleanup
+     *
+     * @param removed rows of (category, source, label, count, ...) that were deleted
+     */
+    public synchronized void removeAll(List<Object[]> removed) {
+        for (Object[] row : removed) {
+            long count = ((Number) row[3]).longValue();
+            remove(categories, (String) row[0], count);
+            remove(sources, (String) row[1], count);
+            remove(labels, (String) row[2], count);
+        }
+    }
+
+    /**
+     * Mark the dictionary complete once the startup rebuild has fed every point
+     */
+    public void markLoaded() {
+        loaded = true;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Names of one kind, sorted
+     */
+    public synchronized List<String> names(Kind kind) {
+        return new ArrayList<>(entries(kind).keySet());
+    }
+
+    /**
+     * Entries of one kind, sorted by name
+     */
+    public synchronized List<Entry> list(Kind kind) {
+        List<Entry> list = new ArrayList<>();
+        entries(kind).forEach((name, entry) -> list.add(new Entry(name, entry.count, entry.firstSeen, entry.lastSeen)));
+        return list;
+    }
+
+    /**
+     * Point counts of one kind, sorted by name
+     */
+    public synchronized Map<String, Long> counts(Kind kind) {
+        Map<String, Long> counts = new TreeMap<>();
+        entries(kind).forEach((name, entry) -> counts.put(name, entry.count));
+        return counts;
+    }
+
+    public synchronized int size(Kind kind) {
+        return entries(kind).size();
+    }
+
+    private Map<String, MutableEntry> entries(Kind kind) {
+        return switch (kind) {
+            case CATEGORY -> categories;
+            case SOURCE -> sources;
+            case LABEL -> labels;
+        };
+    }
+
+    private static void add(Map<String, MutableEntry> entries, String name, LocalDateTime timestamp) {
+        if (name == null) {
+            return;
+        }
+        MutableEntry entry = entries.computeIfAbsent(name, key -> new MutableEntry(timestamp));
+        entry.count++;
+        if (timestamp.isBefore(entry.firstSeen)) {
+            entry.firstSeen = timestamp;
+        }
+        if (timestamp.isAfter(entry.lastSeen)) {
+            entry.lastSeen = timestamp;
+        }
+    }
+
+    private static void remove(Map<String, MutableEntry> entries, String name, long count) {
+        if (name == null) {
+            return;
+        }
+        MutableEntry entry = entries.get(name);
+        if (entry != null) {
+            entry.count -= count;
+            if (entry.count <= 0) {
+                entries.remove(name);
+            }
+        }
+    }
+
+    private static final class MutableEntry {
+        private long count;
+        private LocalDateTime firstSeen;
+        private LocalDateTime lastSeen;
+
+        private MutableEntry(LocalDateTime seen) {
+            this.firstSeen = seen;
+            this.lastSeen = seen;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.dashboard.service;
+
+import com.dashboard.model.DataPoint;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes data points of a time range straight to an output stream, one row
+ * at a time, as NDJSON or CSV
+ *
+ * Rows come from a forward-only database cursor and are released as soon as
+ * they are written, so memory use does not depend on the size of the range.
+ */
+@Component
+public class DataPointExporter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String CSV_HEADER = "id,timestamp,category,label,value,unit,source,description,metadata";
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            return valueOf(value.trim().toUpperCase());
+        }
+    }
+
+    @Autowired
+    private DataPointService dataPointService;
+
+    private final ObjectWriter jsonWriter;
+
+    public DataPointExporter(ObjectMapper objectMapper) {
+        this.jsonWriter = objectMapper.writerFor(DataPoint.class);
+    }
+
+    /**
+     * Export every point of the category (or of all categories, if null) in [startTime, endTime)
+     */
+    public void export(Format format, boolean gzip, String category, LocalDateTime startTime,
+                       LocalDateTime endTime, OutputStream target) throws IOException {
+        OutputStream out = gzip
+                ? new GZIPOutputStream(target, BUFFER_SIZE)
+                : new BufferedOutputStream(target, BUFFER_SIZE);
+        try {
+            if (format == Format.CSV) {
+                writeCsv(category, startTime, endTime, out);
+            } else {
+                writeNdjson(category, startTime, endTime, out);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (out instanceof GZIPOutputStream gzipOut) {
+            gzipOut.finish();
+        }
+        out.flush();
+    }
+
+    private void writeNdjson(String category, LocalDateTime startTime, LocalDateTime endTime,
+                             OutputStream out) {
+        dataPointService.forEachDataPoint(category, startTime, endTime, dataPoint -> {
+            try {
+                out.write(jsonWriter.writeValueAsBytes(dataPoint));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void writeCsv(String category, LocalDateTime startTime, LocalDateTime endTime,
+                          OutputStream out) throws IOException {
+        // Not closed: the caller finishes and flushes the underlying stream
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        dataPointService.forEachDataPoint(category, startTime, endTime, dataPoint -> {
+            try {
+                writer.write(String.valueOf(dataPoint.getId()));
+                writer.write(',');
+                writer.write(String.valueOf(dataPoint.getTimestamp()));
+                writer.write(',');
+                writeCsvField(writer, dataPoint.getCategory());
+                writer.write(',');
+                writeCsvField(writer, dataPoint.getLabel());
+                writer.write(',');
+                writer.write(String.valueOf(dataPoint.getValue()));
+                writer.write(',');
+                writeCsvField(writer, dataPoint.getUnit());
+                writer.write(',');
+                writeCsvField(writer, dataPoint.getSource());
+                writer.write(',');
+                writeCsvField(writer, dataPoint.getDescription());
+                writer.write(',');
+                writeCsvField(writer, dataPoint.getMetadata());
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    /**
+     * RFC 4180 field: quoted only when it contains a delimiter, quote or line break
+     */
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
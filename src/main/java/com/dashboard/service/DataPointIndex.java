@@ -0,0 +1,28 @@
+package com.dashboard.service;
+
+import com.dashboard.model.DataPoint;
+
+import java.time.LocalDateTime;
+
+/**
+ * In-memory view over persisted data points, kept current by
+ * {@link DataPointService} after each committed write
+ */
+public interface DataPointIndex {
+
+    /**
+     * A data point was saved
+     */
+    void add(DataPoint dataPoint);
+
+    /**
+     * A data point was deleted, or moved away by an update. The argument is a
+     * snapshot of the point as it was indexed.
+     */
+    void remove(DataPoint dataPoint);
+
+    /**
+     * Every data point older than the cutoff was deleted
+     */
+    void removeOlderThan(LocalDateTime cutoff);
+}
@@ -1,15 +1,33 @@
 package com.dashboard.service;
 
 import com.dashboard.model.DataPoint;
+import com.dashboard.model.RollupResolution;
+import com.dashboard.repository.DataPointPageQuery;
 import com.dashboard.repository.DataPointRepository;
+import com.dashboard.timeseries.BinGrid;
+import com.dashboard.timeseries.ScatterGrid;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service class for managing DataPoint operations
@@ -23,17 +41,107 @@ public class DataPointService {
     private DataPointRepository dataPointRepository;
     
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    private DataPointBroadcaster broadcaster;
+    
+    @Autowired
+    private RecentDataStore recentDataStore;
+    
+    @Autowired
+    private SeriesColumnStore seriesColumnStore;
+    
+    @Autowired
+    private RollupService rollupService;
+    
+    @Autowired
+    private List<DataPointIndex> indexes;
+    
+    @Autowired
+    private DataPointStatistics statistics;
+    
+    @Autowired
+    private DataPointDictionary dictionary;
+    
+    @Autowired
+    private SearchIndex searchIndex;
+    
+    @Autowired
+    private LatestValueIndex latestValueIndex;
+    
+    @Autowired
+    private SegmentLogStore segmentLogStore;
+    
+    @Autowired
+    private MovingWindowEngine movingWindowEngine;
+    
+    @Autowired
+    private PercentileIndex percentileIndex;
+    
+    @Autowired
+    private CardinalityIndex cardinalityIndex;
+    
+    private final Counter dictionaryHits;
+    private final Counter dictionaryMisses;
+    
+    public DataPointService(MeterRegistry meterRegistry) {
+        this.dictionaryHits = Counter.builder("dashboard.dictionary.lookups")
+                .tag("result", "hit")
+                .description("DISTINCT lookups served from the in-process dictionary")
+                .register(meterRegistry);
+        this.dictionaryMisses = Counter.builder("dashboard.dictionary.lookups")
+                .tag("result", "miss")
+                .description("DISTINCT lookups that fell back to the database")
+                .register(meterRegistry);
+    }
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    /**
+     * Rebuild the in-memory indexes from the database on startup, so a restart
+     * against a persistent database does not start cold
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildIndexes() {
+        try (Stream<DataPoint> stream = dataPointRepository.streamAllByOrderByTimestamp()) {
+            stream.forEach(dataPoint -> {
+                indexAdd(dataPoint);
+                entityManager.detach(dataPoint);
+            });
+        }
+        dictionary.markLoaded();
+    }
+    
+    /**
+     * Visit every data point of the category (or all categories, if null) in
+     * [startTime, endTime) in time order, reading through a database cursor.
+     * Each point is detached once visited, so the persistence context does
+     * not grow with the range.
+     */
+    @Transactional(readOnly = true)
+    public void forEachDataPoint(String category, LocalDateTime startTime, LocalDateTime endTime,
+                                 Consumer<DataPoint> visitor) {
+        try (Stream<DataPoint> stream = dataPointRepository.streamByTimeRange(category, startTime, endTime)) {
+            stream.forEach(dataPoint -> {
+                visitor.accept(dataPoint);
+                entityManager.detach(dataPoint);
+            });
+        }
+    }
     
     /**
      * Save a new data point and broadcast update
      */
     public DataPoint saveDataPoint(DataPoint dataPoint) {
         DataPoint savedPoint = dataPointRepository.save(dataPoint);
+        rollupService.record(List.of(savedPoint));
+        afterCommit(() -> {
+            segmentLogStore.logSave(savedPoint);
+            indexAdd(savedPoint);
+        });
         
         // Broadcast real-time update via WebSocket
-        messagingTemplate.convertAndSend("/topic/datapoints", savedPoint);
-        messagingTemplate.convertAndSend("/topic/datapoints/" + savedPoint.getCategory(), savedPoint);
+        broadcaster.publish(savedPoint);
         
         return savedPoint;
     }
@@ -43,13 +151,37 @@ public class DataPointService {
      */
     public List<DataPoint> saveDataPoints(List<DataPoint> dataPoints) {
         List<DataPoint> savedPoints = dataPointRepository.saveAll(dataPoints);
+        rollupService.record(savedPoints);
+        afterCommit(() -> savedPoints.forEach(savedPoint -> {
+            segmentLogStore.logSave(savedPoint);
+            indexAdd(savedPoint);
+        }));
         
         // Broadcast batch update
-        messagingTemplate.convertAndSend("/topic/datapoints/batch", savedPoints);
+        broadcaster.publishBatch(savedPoints);
         
         return savedPoints;
     }
     
+    /**
+     * Save points that callers submitted one by one and the ingest pipeline
+     * batched. Besides the batch frame, each point goes to the per-point
+     * topics as {@link #saveDataPoint} would; nothing is broadcast unless
+     * the batch commits, since a failed batch is retried point by point.
+     */
+    public List<DataPoint> saveIngestedPoints(List<DataPoint> dataPoints) {
+        List<DataPoint> savedPoints = dataPointRepository.saveAll(dataPoints);
+        rollupService.record(savedPoints);
+        afterCommit(() -> {
+            savedPoints.forEach(savedPoint -> {
+                segmentLogStore.logSave(savedPoint);
+                indexAdd(savedPoint);
+            });
+            broadcaster.publishEach(savedPoints);
+        });
+        return savedPoints;
+    }
+    
     /**
      * Get data point by ID
      */
@@ -66,6 +198,20 @@ public class DataPointService {
         return dataPointRepository.findAll();
     }
     
+    /**
+     * Get one keyset-paginated page of data points
+     */
+    @Transactional(readOnly = true)
+    public DataPointPageQuery.Page getDataPointPage(DataPointPageQuery query, int limit) {
+        // One extra row tells whether another page follows
+        List<DataPoint> rows = dataPointRepository.findPage(query, limit + 1);
+        if (rows.size() <= limit) {
+            return new DataPointPageQuery.Page(rows, null);
+        }
+        List<DataPoint> items = rows.subList(0, limit);
+        return new DataPointPageQuery.Page(new ArrayList<>(items), query.cursorAfter(items.get(limit - 1)));
+    }
+    
     /**
      * Get data points by category
      */
@@ -75,88 +221,207 @@ public class DataPointService {
     }
     
     /**
-     * Get recent data points (last 100)
+     * Get recent data points (last 100), served from the hot-tier store
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<DataPoint> getRecentDataPoints() {
-        return dataPointRepository.findTop100ByOrderByTimestampDesc();
+        return recentDataStore.recent(100);
     }
     
     /**
-     * Get recent data points by category (last 50)
+     * Get recent data points by category (last 50), served from the hot-tier store
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<DataPoint> getRecentDataPointsByCategory(String category) {
-        return dataPointRepository.findTop50ByCategoryOrderByTimestampDesc(category);
+        return recentDataStore.recentByCategory(category, 50);
     }
     
     /**
-     * Get data points within time range
+     * Get (timestamp, value) columns of every series within time range
      */
-    @Transactional(readOnly = true)
-    public List<DataPoint> getDataPointsInTimeRange(LocalDateTime startTime, LocalDateTime endTime) {
-        return dataPointRepository.findByTimestampBetweenOrderByTimestampDesc(startTime, endTime);
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<SeriesColumnStore.SeriesData> getSeriesInTimeRange(LocalDateTime startTime, LocalDateTime endTime) {
+        return seriesColumnStore.range(null, startTime, endTime);
     }
     
     /**
-     * Get data points by category within time range
+     * Get (timestamp, value) columns of a category's series within time range
      */
-    @Transactional(readOnly = true)
-    public List<DataPoint> getDataPointsByCategoryInTimeRange(String category, 
-                                                             LocalDateTime startTime, 
-                                                             LocalDateTime endTime) {
-        return dataPointRepository.findByCategoryAndTimestampBetweenOrderByTimestampDesc(
-                category, startTime, endTime);
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<SeriesColumnStore.SeriesData> getSeriesByCategoryInTimeRange(String category,
+                                                                            LocalDateTime startTime,
+                                                                            LocalDateTime endTime) {
+        return seriesColumnStore.range(category, startTime, endTime);
     }
     
     /**
-     * Get distinct categories
+     * Get the series within time range, each downsampled to at most maxPoints
+     * points. Without a label, every series of the category (or of all
+     * categories) is returned separately.
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<SeriesColumnStore.DownsampledSeries> getDownsampledSeries(String category, String label,
+                                                                          LocalDateTime startTime, LocalDateTime endTime,
+                                                                          String method, int maxPoints) {
+        return seriesColumnStore.downsample(category, label, startTime, endTime, method, maxPoints);
+    }
+    
+    /**
+     * Bin the points of a category, or of one series, within a time range
+     * into a fixed grid. Without explicit bounds, the value axis spans the
+     * min and max of the hourly rollups covering the range, so the points
+     * are read only once.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ScatterGrid getScatterGrid(String category, String label, LocalDateTime startTime,
+                                      LocalDateTime endTime, BinGrid.Layout layout, int columns, int rows,
+                                      Double minValue, Double maxValue) {
+        double lower = minValue != null ? minValue : 0;
+        double upper = maxValue != null ? maxValue : 1;
+        if (layout.hasValueAxis() && (minValue == null || maxValue == null)) {
+            double[] bounds = rollupService.getValueBounds(category, label, startTime, endTime);
+            if (bounds != null) {
+                lower = minValue != null ? minValue : bounds[0];
+                upper = maxValue != null ? maxValue : bounds[1];
+            }
+        }
+        return seriesColumnStore.bin(category, label, startTime, endTime, layout, columns, rows, lower, upper);
+    }
+    
+    /**
+     * Get quantiles of the values of a category, or of one series, within a
+     * time range, merged from the per-bucket sketches
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public PercentileIndex.Percentiles getPercentiles(String category, String label, LocalDateTime startTime,
+                                                      LocalDateTime endTime, double[] quantiles) {
+        return percentileIndex.percentiles(category, label, startTime, endTime, quantiles);
+    }
+    
+    /**
+     * Get the estimated number of distinct sources or labels of a category
+     * within a time range, optionally per hour or day
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CardinalityIndex.Cardinality getCardinality(String category, CardinalityIndex.Dimension dimension,
+                                                       LocalDateTime startTime, LocalDateTime endTime,
+                                                       RollupResolution interval) {
+        return cardinalityIndex.cardinality(category, dimension, startTime, endTime, interval);
+    }
+    
+    /**
+     * Get sliding-window statistics (SMA, EMA, standard deviation, min, max)
+     * within a time range, computed per series of a category, or for one series
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<SeriesColumnStore.MovingWindowSeries> getMovingWindowSeries(String category, String label,
+                                                                            LocalDateTime startTime, LocalDateTime endTime,
+                                                                            int window, int maxPoints) {
+        return seriesColumnStore.movingWindow(category, label, startTime, endTime, window, maxPoints);
+    }
+    
+    /**
+     * Get the live sliding-window statistics of every series of a category
+     * (or all categories, if null) for the configured window sizes
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<MovingWindowEngine.WindowStats> getLatestWindowStats(String category) {
+        return movingWindowEngine.latest(category);
+    }
+    
+    /**
+     * Get distinct categories, served from the dictionary once it is loaded
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<String> getDistinctCategories() {
+        if (dictionary.isLoaded()) {
+            dictionaryHits.increment();
+            return dictionary.names(DataPointDictionary.Kind.CATEGORY);
+        }
+        dictionaryMisses.increment();
         return dataPointRepository.findDistinctCategories();
     }
     
     /**
-     * Get distinct sources
+     * Get distinct sources, served from the dictionary once it is loaded
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<String> getDistinctSources() {
+        if (dictionary.isLoaded()) {
+            dictionaryHits.increment();
+            return dictionary.names(DataPointDictionary.Kind.SOURCE);
+        }
+        dictionaryMisses.increment();
         return dataPointRepository.findDistinctSources();
     }
     
     /**
-     * Get aggregated data by category
+     * Get dictionary entries (count, first and last seen) of one kind
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<DataPointDictionary.Entry> getDictionary(DataPointDictionary.Kind kind) {
+        return dictionary.list(kind);
+    }
+    
+    /**
+     * Get aggregated data by category, read from the rollup tables
      */
     @Transactional(readOnly = true)
     public List<Object[]> getAggregatedDataByCategory(LocalDateTime startTime) {
-        return dataPointRepository.getAggregatedDataByCategory(startTime);
+        return rollupService.getAggregatedDataByCategory(startTime);
     }
     
     /**
-     * Get hourly aggregated data for a category
+     * Get hourly aggregated data for a category, read from the rollup tables
      */
     @Transactional(readOnly = true)
     public List<Object[]> getHourlyAggregatedData(String category, LocalDateTime startTime) {
-        return dataPointRepository.getHourlyAggregatedData(category, startTime);
+        return rollupService.getHourlyAggregatedData(category, startTime);
     }
     
     /**
-     * Search data points by label or description
+     * Search data points by label or description, newest first, through the
+     * in-memory inverted index
+     *
+     * @param prefix whether the last search word also matches longer words
+     * @param cursor nextCursor of the previous page, or null
+     * @throws IllegalArgumentException if the cursor is malformed
      */
     @Transactional(readOnly = true)
-    public List<DataPoint> searchDataPoints(String searchTerm) {
-        return dataPointRepository.searchByLabelOrDescription(searchTerm);
+    public DataPointPageQuery.Page searchDataPoints(String searchTerm, boolean prefix, int limit, String cursor) {
+        SearchIndex.Posting after = cursor == null || cursor.isBlank() ? null : SearchIndex.Posting.fromCursor(cursor);
+        SearchIndex.Result result = searchIndex.search(searchTerm, prefix, limit, after);
+        
+        Map<Long, DataPoint> byId = new HashMap<>();
+        dataPointRepository.findAllById(result.ids()).forEach(dp -> byId.put(dp.getId(), dp));
+        List<DataPoint> items = new ArrayList<>(result.ids().size());
+        for (Long id : result.ids()) {
+            // A point deleted since the lookup is simply left out
+            DataPoint dp = byId.get(id);
+            if (dp != null) {
+                items.add(dp);
+            }
+        }
+        return new DataPointPageQuery.Page(items, result.nextCursor());
     }
     
     /**
      * Delete data point by ID
      */
     public void deleteDataPoint(Long id) {
+        Optional<DataPoint> existing = dataPointRepository.findById(id);
         dataPointRepository.deleteById(id);
+        existing.ifPresent(dataPoint -> {
+            rollupService.remove(dataPoint);
+            DataPoint removed = snapshot(dataPoint);
+            afterCommit(() -> {
+                segmentLogStore.logDelete(removed);
+                indexRemove(removed);
+            });
+        });
         
         // Broadcast deletion
-        messagingTemplate.convertAndSend("/topic/datapoints/deleted", id);
+        broadcaster.send("/topic/datapoints/deleted", id);
     }
     
     /**
@@ -165,6 +430,7 @@ public class DataPointService {
     public DataPoint updateDataPoint(Long id, DataPoint updatedDataPoint) {
         return dataPointRepository.findById(id)
                 .map(dataPoint -> {
+                    DataPoint previous = snapshot(dataPoint);
                     dataPoint.setCategory(updatedDataPoint.getCategory());
                     dataPoint.setValue(updatedDataPoint.getValue());
                     dataPoint.setLabel(updatedDataPoint.getLabel());
@@ -174,9 +440,17 @@ public class DataPointService {
                     dataPoint.setMetadata(updatedDataPoint.getMetadata());
                     
                     DataPoint saved = dataPointRepository.save(dataPoint);
+                    rollupService.remove(previous);
+                    rollupService.record(List.of(saved));
+                    afterCommit(() -> {
+                        segmentLogStore.logDelete(previous);
+                        segmentLogStore.logSave(saved);
+                        indexRemove(previous);
+                        indexAdd(saved);
+                    });
                     
                     // Broadcast update
-                    messagingTemplate.convertAndSend("/topic/datapoints/updated", saved);
+                    broadcaster.send("/topic/datapoints/updated", saved);
                     
                     return saved;
                 })
@@ -184,26 +458,130 @@ public class DataPointService {
     }
     
     /**
-     * Clean up old data points (older than specified days)
+     * Delete every data point older than the cutoff in one set-based
+     * statement. Callers bound the transaction size by choosing the cutoff;
+     * see {@link RetentionJanitor}.
+     *
+     * @return the number of data points deleted
      */
-    public void cleanupOldDataPoints(int daysToKeep) {
-        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(daysToKeep);
-        dataPointRepository.deleteByTimestampBefore(cutoffDate);
+    public int deleteDataPointsBefore(LocalDateTime cutoffDate) {
+        // Count what is about to go, so the statistics and dictionary counts stay exact
+        List<Object[]> removed = dataPointRepository.countBySeriesBefore(cutoffDate);
+        LocalDateTime startOfToday = LocalDate.now().atStartOfDay();
+        long removedToday = cutoffDate.isAfter(startOfToday)
+                ? dataPointRepository.countByTimestampGreaterThanEqualAndTimestampBefore(startOfToday, cutoffDate)
+                : 0;
+        
+        rollupService.removeBefore(cutoffDate);
+        int deleted = dataPointRepository.deleteByTimestampBefore(cutoffDate);
+        afterCommit(() -> {
+            segmentLogStore.logTruncate(cutoffDate);
+            indexes.forEach(index -> index.removeOlderThan(cutoffDate));
+            statistics.removeAll(removed, removedToday);
+            dictionary.removeAll(removed);
+        });
+        return deleted;
     }
     
     /**
-     * Get latest data point for each category
+     * Timestamp of the oldest data point, or null if there are none
      */
     @Transactional(readOnly = true)
-    public List<DataPoint> getLatestByCategory() {
-        return dataPointRepository.findLatestByCategory();
+    public LocalDateTime getOldestTimestamp() {
+        return dataPointRepository.findOldestTimestamp();
+    }
+    
+    /**
+     * Timestamp of the oldest data point at or after the given time, or null
+     * if there are none
+     */
+    @Transactional(readOnly = true)
+    public LocalDateTime getOldestTimestampFrom(LocalDateTime startTime) {
+        return dataPointRepository.findOldestTimestampFrom(startTime);
     }
     
     /**
-     * Get count by category
+     * Timestamp of the limit-th data point in time order within [from,
+     * cutoff), or null if there are fewer
      */
     @Transactional(readOnly = true)
+    public LocalDateTime getTimestampAfterCount(LocalDateTime from, LocalDateTime cutoff, int limit) {
+        return dataPointRepository.findTimestampAfterCount(from, cutoff, limit);
+    }
+    
+    /**
+     * Get latest data point for each category, served from the latest-value index
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<DataPoint> getLatestByCategory() {
+        return latestValueIndex.latestByCategory();
+    }
+    
+    /**
+     * Get latest data point of each series (label) in a category
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<DataPoint> getLatestBySeries(String category) {
+        return latestValueIndex.latestBySeries(category);
+    }
+    
+    /**
+     * Get count by category, served from the dictionary
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<Object[]> getCountByCategory() {
-        return dataPointRepository.countByCategory();
+        List<Object[]> counts = new ArrayList<>();
+        dictionary.counts(DataPointDictionary.Kind.CATEGORY).forEach((category, count) -> counts.add(new Object[] {category, count}));
+        return counts;
+    }
+    
+    /**
+     * Get total, today's and per-category counts, served from the statistics counters
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public DataPointStatistics.Stats getStatistics() {
+        return statistics.snapshot();
+    }
+    
+    private void indexAdd(DataPoint dataPoint) {
+        indexes.forEach(index -> index.add(dataPoint));
+        statistics.add(dataPoint);
+        dictionary.add(dataPoint);
+    }
+    
+    private void indexRemove(DataPoint dataPoint) {
+        indexes.forEach(index -> index.remove(dataPoint));
+        statistics.remove(dataPoint);
+        dictionary.remove(dataPoint);
+    }
+    
+    /**
+     * Copy of the indexed state of a managed entity, taken before it is
+     * modified or deleted
+     */
+    private static DataPoint snapshot(DataPoint dataPoint) {
+        DataPoint copy = new DataPoint(dataPoint.getCategory(), dataPoint.getValue(), dataPoint.getLabel(),
+                dataPoint.getSource(), dataPoint.getDescription(), dataPoint.getUnit());
+        copy.setId(dataPoint.getId());
+        copy.setTimestamp(dataPoint.getTimestamp());
+        copy.setMetadata(dataPoint.getMetadata());
+        return copy;
+    }
+    
+    /**
+     * Run an in-memory store update once the surrounding transaction commits,
+     * so rolled-back writes never become visible to readers
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.dashboard.service;
+
+import com.dashboard.model.DataPoint;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Running counters over the persisted data points
+ *
+ * Updated by {@link DataPointService} after each committed save, delete,
+ * update and cleanup, so the statistics read costs O(categories) instead of
+ * a table scan. "Today" is the current local date; the counter restarts at
+ * midnight. Per-category and distinct counts come from the
+ * {@link DataPointDictionary}.
+ */
+@Component
+public class DataPointStatistics {
+
+    private final DataPointDictionary dictionary;
+
+    private long totalCount;
+    private double valueSum;
+
+    private LocalDate today = LocalDate.now();
+    private long todayCount;
+
+    public DataPointStatistics(DataPointDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    public synchronized void add(DataPoint dataPoint) {
+        totalCount++;
+        valueSum += dataPoint.getValue();
+        if (isToday(dataPoint)) {
+            todayCount++;
+        }
+    }
+
+    public synchronized void remove(DataPoint dataPoint) {
+        totalCount--;
+        valueSum -= dataPoint.getValue();
+        if (isToday(dataPoint)) {
+            todayCount--;
+        }
+    }
+
+    /**
+     * Account for a bulk cleanup
+     *
+     * @param removed rows of (category, source, label, count, sum of values) that were deleted
+     * @param removedToday how many of the deleted points were from today
+     */
+    public synchronized void removeAll(List<Object[]> removed, long removedToday) {
+        for (Object[] row : removed) {
+            totalCount -= ((Number) row[3]).longValue();
+            valueSum -= row[4] == null ? 0 : ((Number) row[4]).doubleValue();
+        }
+        rollOver();
+        todayCount = Math.max(0, todayCount - removedToday);
+    }
+
+    public synchronized Stats snapshot() {
+        rollOver();
+        return new Stats(totalCount, todayCount, totalCount == 0 ? 0 : valueSum / totalCount,
+                dictionary.counts(DataPointDictionary.Kind.CATEGORY),
+                dictionary.size(DataPointDictionary.Kind.CATEGORY),
+                dictionary.size(DataPointDictionary.Kind.SOURCE));
+    }
+
+    private boolean isToday(DataPoint dataPoint) {
+        rollOver();
+        return dataPoint.getTimestamp() != null && dataPoint.getTimestamp().toLocalDate().equals(today);
+    }
+
+    private void rollOver() {
+        LocalDate now = LocalDate.now();
+        if (!now.equals(today)) {
+            today = now;
+            todayCount = 0;
+        }
+    }
+
+    public record Stats(long totalCount, long todayCount, double averageValue, Map<String, Long> countByCategory,
+                        int distinctCategories, int distinctSources) {
+    }
+}
@@ -0,0 +1,92 @@
+package com.dashboard.service;
+
+import com.dashboard.model.DataPoint;
+import com.dashboard.timeseries.Timestamps;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stateful encoder for the compact delta frame format of one destination
+ * 
+ * A frame is a JSON object:
+ * <pre>
+ * {"t": baseEpochMillis, "k": true|false,
+ *  "s": [[seriesId, category, label, unit, source], ...],
+ *  "p": [seriesId, deltaMillis, value, seriesId, deltaMillis, value, ...]}
+ * </pre>
+ * Series metadata is sent once, in the first frame that uses the series;
+ * later points carry only the series id, a timestamp delta from the frame
+ * base and the value. Every keyframe repeats the full series dictionary, so
+ * clients that subscribe mid-stream catch up within one keyframe interval.
+ */
+public class DeltaFrameEncoder {
+
+    /**
+     * STOMP content type of delta frames, negotiated with the SUBSCRIBE "accept" header
+     */
+    public static final String CONTENT_TYPE = "application/vnd.dashboard.delta+json";
+
+    private final long keyframeIntervalMillis;
+    private final Map<SeriesMeta, Integer> seriesIds = new HashMap<>();
+    private long lastKeyframe = Long.MIN_VALUE;
+
+    public DeltaFrameEncoder(long keyframeIntervalMillis) {
+        this.keyframeIntervalMillis = keyframeIntervalMillis;
+    }
+
+    /**
+     * Encode a non-empty, time-ordered batch of points into one frame
+     */
+    public synchronized Map<String, Object> encode(List<DataPoint> dataPoints) {
+        long now = System.currentTimeMillis();
+        boolean keyframe = now - lastKeyframe >= keyframeIntervalMillis;
+        if (keyframe) {
+            lastKeyframe = now;
+        }
+
+        long base = Long.MAX_VALUE;
+        for (DataPoint dataPoint : dataPoints) {
+            base = Math.min(base, Timestamps.toEpochMillis(dataPoint.getTimestamp()));
+        }
+
+        List<Object[]> series = new ArrayList<>();
+        if (keyframe) {
+            seriesIds.forEach((meta, id) -> series.add(meta.toArray(id)));
+        }
+        List<Number> points = new ArrayList<>(dataPoints.size() * 3);
+        for (DataPoint dataPoint : dataPoints) {
+            SeriesMeta meta = SeriesMeta.of(dataPoint);
+            Integer id = seriesIds.get(meta);
+            if (id == null) {
+                id = seriesIds.size();
+                seriesIds.put(meta, id);
+                series.add(meta.toArray(id));
+            }
+            points.add(id);
+            points.add(Timestamps.toEpochMillis(dataPoint.getTimestamp()) - base);
+            points.add(dataPoint.getValue());
+        }
+
+        Map<String, Object> frame = new HashMap<>(4);
+        frame.put("t", base);
+        frame.put("k", keyframe);
+        frame.put("s", series);
+        frame.put("p", points);
+        return frame;
+    }
+
+    private record SeriesMeta(String category, String label, String unit, String source) {
+
+        static SeriesMeta of(DataPoint dataPoint) {
+            return new SeriesMeta(dataPoint.getCategory(), dataPoint.getLabel(),
+                    dataPoint.getUnit(), dataPoint.getSource());
+        }
+
+        Object[] toArray(int id) {
+            return new Object[] {id, category, label, unit, source};
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package com.dashboard.service;
+
+import com.dashboard.model.DataPoint;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Ingest entry point for new data points
+ * 
+ * In "direct" mode every point is saved in its own transaction. In
+ * "write-behind" mode points are published into a lock-free ring buffer that
+ * a single writer drains in batches: it takes whatever is queued, up to the
+ * batch size, and flushes once the ring is empty (or, with a flush interval,
+ * once the interval has passed since the first point of the batch). Under
+ * load, batches grow by themselves while the previous one commits, so an
+ * idle pipeline adds no latency. The writer's save does the rollups and
+ * broadcasts. With "sync" acknowledgement the
+ * caller waits until its batch is committed, for up to the ack timeout; with
+ * "async" it returns as soon as the point is queued, and queued points are
+ * lost if the process dies.
+ * 
+ * {@link #publish(DataPoint)} always goes through the ring, whatever the
+ * mode, and never waits: a full ring rejects the point at once.
+ * 
+ * If a batch fails to commit, its points are saved again one by one, so a
+ * bad point fails alone instead of taking the rest of the batch with it.
+ */
+@Service
+public class IngestPipeline implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestPipeline.class);
+
+    // Back-off between attempts to publish into a full ring
+    private static final long FULL_RETRY_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    // Longest park of the idle writer before it re-checks for shutdown
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Autowired
+    private DataPointService dataPointService;
+
+    @Value("${app.ingest.mode:direct}")
+    private String mode;
+
+    @Value("${app.ingest.ack:sync}")
+    private String ack;
+
+    @Value("${app.ingest.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.ingest.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.ingest.flush-interval-ms:0}")
+    private long flushIntervalMs;
+
+    @Value("${app.ingest.enqueue-timeout-ms:1000}")
+    private long enqueueTimeoutMs;
+
+    @Value("${app.ingest.ack-timeout-ms:10000}")
+    private long ackTimeoutMs;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter rejected;
+    private final Counter failed;
+    private final Counter dropped;
+    private final Timer publishLatency;
+
+    private MpscRingBuffer<Entry> ring;
+    private volatile Thread writer;
+    private volatile boolean writerParked;
+    private volatile boolean running;
+
+    public IngestPipeline(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.rejected = Counter.builder("dashboard.ingest.rejected")
+                .description("Data points rejected because the ingest ring was full")
+                .register(meterRegistry);
+        this.failed = Counter.builder("dashboard.ingest.failed")
+                .description("Queued data points that could not be saved, even on their own")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("dashboard.ingest.dropped")
+                .description("Points accepted by publish() without waiting that could not be saved and were lost")
+                .register(meterRegistry);
+        this.publishLatency = Timer.builder("dashboard.ingest.publish.latency")
+                .description("Time to publish a data point into the ingest ring, including waits for space")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void registerGauges() {
+        Gauge.builder("dashboard.ingest.ring.occupancy", this, IngestPipeline::getQueueDepth)
+                .description("Data points in the ingest ring waiting for the writer")
+                .register(meterRegistry);
+        Gauge.builder("dashboard.ingest.ring.capacity", this, pipeline -> pipeline.ring == null ? 0 : pipeline.ring.capacity())
+                .description("Slots in the ingest ring")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publish one data point for the writer to save, without waiting for
+     * space or for the save. Returns false if the ring is full. A published
+     * point that still cannot be saved once its batch is retried point by
+     * point is lost: it is logged and counted in dashboard.ingest.dropped.
+     */
+    public boolean publish(DataPoint dataPoint) {
+        long started = System.nanoTime();
+        boolean published = running && ring.offer(new Entry(dataPoint, null));
+        if (published) {
+            wakeWriter();
+        } else {
+            rejected.increment();
+        }
+        publishLatency.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return published;
+    }
+
+    /**
+     * Ingest one data point. Returns the saved point, or the queued point
+     * without an id when acknowledgement is asynchronous.
+     */
+    public DataPoint ingest(DataPoint dataPoint) {
+        if (!isWriteBehind()) {
+            return dataPointService.saveDataPoint(dataPoint);
+        }
+        CompletableFuture<DataPoint> saved = enqueue(dataPoint);
+        return isAsyncAck() ? dataPoint : await(saved, ackDeadline());
+    }
+
+    /**
+     * Ingest several data points; see {@link #ingest(DataPoint)}
+     */
+    public List<DataPoint> ingestAll(List<DataPoint> dataPoints) {
+        if (!isWriteBehind()) {
+            return dataPointService.saveIngestedPoints(dataPoints);
+        }
+        List<CompletableFuture<DataPoint>> pending = new ArrayList<>(dataPoints.size());
+        for (DataPoint dataPoint : dataPoints) {
+            pending.add(enqueue(dataPoint));
+        }
+        if (isAsyncAck()) {
+            return dataPoints;
+        }
+        long deadline = ackDeadline();
+        List<DataPoint> saved = new ArrayList<>(pending.size());
+        pending.forEach(future -> saved.add(await(future, deadline)));
+        return saved;
+    }
+
+    public boolean isWriteBehind() {
+        return "write-behind".equalsIgnoreCase(mode);
+    }
+
+    public boolean isAsyncAck() {
+        return "async".equalsIgnoreCase(ack);
+    }
+
+    /**
+     * Number of points waiting for the writer
+     */
+    public int getQueueDepth() {
+        return ring == null ? 0 : ring.size();
+    }
+
+    @Override
+    public void start() {
+        ring = new MpscRingBuffer<>(queueCapacity);
+        running = true;
+        writer = new Thread(this::drainLoop, "ingest-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        // The writer wakes up, drains what is left in the ring and exits
+        running = false;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Publish a point, retrying for up to the enqueue timeout while the ring
+     * is full
+     */
+    private CompletableFuture<DataPoint> enqueue(DataPoint dataPoint) {
+        Entry entry = new Entry(dataPoint, new CompletableFuture<>());
+        long started = System.nanoTime();
+        long deadline = started + TimeUnit.MILLISECONDS.toNanos(enqueueTimeoutMs);
+        while (!(running && ring.offer(entry))) {
+            if (!running || System.nanoTime() >= deadline) {
+                rejected.increment();
+                publishLatency.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                throw new IllegalStateException("Ingest queue is full");
+            }
+            LockSupport.parkNanos(FULL_RETRY_NANOS);
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while queueing data point");
+            }
+        }
+        publishLatency.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        wakeWriter();
+        return entry.saved();
+    }
+
+    private void wakeWriter() {
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private long ackDeadline() {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ackTimeoutMs);
+    }
+
+    /**
+     * Wait for a queued point to be saved, until the deadline. A point that
+     * times out stays queued and may still be saved later.
+     */
+    private static DataPoint await(CompletableFuture<DataPoint> saved, long deadline) {
+        try {
+            return saved.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out waiting for data point to be saved");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for data point to be saved");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new CompletionException(e.getCause());
+        }
+    }
+
+    /**
+     * Writer loop: collect up to batchSize entries, until the ring is empty
+     * and at most the flush interval has passed since the first one, then
+     * save them in one transaction
+     */
+    private void drainLoop() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (running || !ring.isEmpty()) {
+            if (!awaitEntries(System.nanoTime() + IDLE_PARK_NANOS)) {
+                continue;
+            }
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+            while (batch.size() < batchSize) {
+                ring.drainTo(batch, batchSize - batch.size());
+                if (batch.size() >= batchSize || !awaitEntries(deadline)) {
+                    break;
+                }
+            }
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Park the writer until an entry is published or the deadline passes.
+     * Returns whether an entry is available.
+     */
+    private boolean awaitEntries(long deadline) {
+        while (ring.isEmpty()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || !running) {
+                return !ring.isEmpty();
+            }
+            writerParked = true;
+            // Re-check after announcing, so a publish in between is not missed
+            if (ring.isEmpty()) {
+                LockSupport.parkNanos(this, remaining);
+            }
+            writerParked = false;
+        }
+        return true;
+    }
+
+    private void flush(List<Entry> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<DataPoint> points = new ArrayList<>(batch.size());
+        batch.forEach(entry -> points.add(entry.dataPoint()));
+        List<DataPoint> saved;
+        try {
+            saved = dataPointService.saveIngestedPoints(points);
+        } catch (Exception e) {
+            log.warn("Ingest batch of {} failed, retrying point by point: {}", batch.size(), e.getMessage());
+            batch.forEach(this::flushOne);
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.get(i).saved() != null) {
+                batch.get(i).saved().complete(saved.get(i));
+            }
+        }
+    }
+
+    /**
+     * Save one point of a failed batch in its own transaction
+     */
+    private void flushOne(Entry entry) {
+        DataPoint dataPoint = entry.dataPoint();
+        // The rolled-back batch may have assigned an id that was never committed
+        dataPoint.setId(null);
+        try {
+            DataPoint saved = dataPointService.saveDataPoint(dataPoint);
+            if (entry.saved() != null) {
+                entry.saved().complete(saved);
+            }
+        } catch (Exception e) {
+            failed.increment();
+            if (entry.saved() != null) {
+                log.warn("Failed to save data point {} / {} at {}: {}", dataPoint.getCategory(),
+                        dataPoint.getLabel(), dataPoint.getTimestamp(), e.getMessage());
+                entry.saved().completeExceptionally(e);
+            } else {
+                // Nobody is waiting for this point, so the log is its only record
+                dropped.increment();
+                log.error("Dropped acknowledged data point {}: {}", dataPoint, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * A queued point, and the future of its save unless it was published
+     * without waiting
+     */
+    private record Entry(DataPoint dataPoint, CompletableFuture<DataPoint> saved) {
+    }
+}
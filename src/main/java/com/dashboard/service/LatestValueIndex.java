@@ -0,0 +1,138 @@
+package com.dashboard.service;
+
+import com.dashboard.model.DataPoint;
+import com.dashboard.timeseries.SeriesKey;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Latest data point per (category, label) series and per category
+ *
+ * Each slot is an atomic reference advanced by compare-and-set only when the
+ * incoming point is newer (timestamp, then id), so concurrent and
+ * out-of-order writes never move a slot backwards and ties resolve to a
+ * single point. When the current latest point is deleted, the replacement
+ * is the series' next newest point in the {@link RecentDataStore}.
+ */
+@Component
+public class LatestValueIndex implements DataPointIndex {
+
+    private static final Comparator<DataPoint> OLDEST_FIRST =
+            Comparator.comparing(DataPoint::getTimestamp).thenComparing(DataPoint::getId);
+
+    private final RecentDataStore recentDataStore;
+
+    private final Map<SeriesKey, AtomicReference<DataPoint>> bySeries = new ConcurrentHashMap<>();
+    private final Map<String, AtomicReference<DataPoint>> byCategory = new ConcurrentHashMap<>();
+
+    public LatestValueIndex(RecentDataStore recentDataStore) {
+        this.recentDataStore = recentDataStore;
+    }
+
+    @Override
+    public void add(DataPoint dataPoint) {
+        if (dataPoint.getId() == null || dataPoint.getTimestamp() == null) {
+            return;
+        }
+        advance(bySeries.computeIfAbsent(SeriesKey.of(dataPoint), key -> new AtomicReference<>()), dataPoint);
+        advance(byCategory.computeIfAbsent(dataPoint.getCategory(), key -> new AtomicReference<>()), dataPoint);
+    }
+
+    @Override
+    public void remove(DataPoint dataPoint) {
+        SeriesKey key = SeriesKey.of(dataPoint);
+        AtomicReference<DataPoint> series = bySeries.get(key);
+        if (series != null) {
+            replace(series, dataPoint, recentDataStore.latestInSeries(key, dataPoint.getId()));
+        }
+        AtomicReference<DataPoint> category = byCategory.get(dataPoint.getCategory());
+        if (category != null && isSamePoint(category.get(), dataPoint)) {
+            replace(category, dataPoint, latestInCategory(dataPoint.getCategory()));
+        }
+    }
+
+    @Override
+    public void removeOlderThan(LocalDateTime cutoff) {
+        // A slot older than the cutoff means its whole series or category is gone
+        bySeries.values().forEach(slot -> clearOlderThan(slot, cutoff));
+        byCategory.values().forEach(slot -> clearOlderThan(slot, cutoff));
+    }
+
+    /**
+     * Newest point of every category, sorted by category
+     */
+    public List<DataPoint> latestByCategory() {
+        return byCategory.values().stream()
+                .map(AtomicReference::get)
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(DataPoint::getCategory))
+                .toList();
+    }
+
+    /**
+     * Newest point of every series of a category, sorted by label
+     */
+    public List<DataPoint> latestBySeries(String category) {
+        return bySeries.entrySet().stream()
+                .filter(entry -> Objects.equals(entry.getKey().category(), category))
+                .map(entry -> entry.getValue().get())
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(DataPoint::getLabel, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .toList();
+    }
+
+    private DataPoint latestInCategory(String category) {
+        DataPoint latest = null;
+        for (Map.Entry<SeriesKey, AtomicReference<DataPoint>> entry : bySeries.entrySet()) {
+            DataPoint candidate = entry.getValue().get();
+            if (candidate != null && Objects.equals(entry.getKey().category(), category)
+                    && (latest == null || OLDEST_FIRST.compare(candidate, latest) > 0)) {
+                latest = candidate;
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * Move the slot to the point if it is newer, or a new version of the current point
+     */
+    private static void advance(AtomicReference<DataPoint> slot, DataPoint dataPoint) {
+        while (true) {
+            DataPoint current = slot.get();
+            if (current != null && !isSamePoint(current, dataPoint) && OLDEST_FIRST.compare(dataPoint, current) <= 0) {
+                return;
+            }
+            if (slot.compareAndSet(current, dataPoint)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Swap out the removed point, unless a concurrent write already has
+     */
+    private static void replace(AtomicReference<DataPoint> slot, DataPoint removed, DataPoint replacement) {
+        DataPoint current = slot.get();
+        if (isSamePoint(current, removed)) {
+            slot.compareAndSet(current, replacement);
+        }
+    }
+
+    private static void clearOlderThan(AtomicReference<DataPoint> slot, LocalDateTime cutoff) {
+        DataPoint current = slot.get();
+        if (current != null && current.getTimestamp().isBefore(cutoff)) {
+            slot.compareAndSet(current, null);
+        }
+    }
+
+    private static boolean isSamePoint(DataPoint a, DataPoint b) {
+        return a != null && b != null && Objects.equals(a.getId(), b.getId());
+    }
+}
@@ -0,0 +1,186 @@
+package com.dashboard.service;
+
+import com.dashboard.model.DataPoint;
+import com.dashboard.timeseries.ColumnarSeries;
+import com.dashboard.timeseries.SeriesKey;
+import com.dashboard.timeseries.SlidingWindow;
+import com.dashboard.timeseries.Timestamps;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live sliding-window statistics of every series for the configured window
+ * sizes
+ *
+ * Each in-order point updates every window of its series in O(1). A point
+ * older than the newest one seen, a delete, or a retention purge reaching
+ * into the widest window cannot be applied incrementally; the series is
+ * marked stale instead and its windows are replayed from the newest
+ * max(window) points of the {@link SeriesColumnStore} on the next read. The
+ * replayed EMA is seeded from the first of those points.
+ */
+@Component
+public class MovingWindowEngine implements DataPointIndex {
+
+    private final SeriesColumnStore seriesColumnStore;
+
+    @Value("${app.moving-window.sizes:10,50}")
+    private int[] windowSizes;
+
+    private final Map<SeriesKey, SeriesWindows> series = new ConcurrentHashMap<>();
+
+    public MovingWindowEngine(SeriesColumnStore seriesColumnStore) {
+        this.seriesColumnStore = seriesColumnStore;
+    }
+
+    /**
+     * Window statistics of one series at its newest point
+     */
+    public record WindowStats(String category, String label, int window, int count, long timestamp,
+                              double movingAverage, double ema, double stdDev, double min, double max) {
+    }
+
+    @Override
+    public void add(DataPoint dataPoint) {
+        long timestamp = Timestamps.toEpochMillis(dataPoint.getTimestamp());
+        // Inside compute, so a purge dropping the series cannot lose the point
+        series.compute(SeriesKey.of(dataPoint), (key, windows) -> {
+            SeriesWindows target = windows != null ? windows : new SeriesWindows(windowSizes);
+            target.add(timestamp, dataPoint.getValue());
+            return target;
+        });
+    }
+
+    @Override
+    public void remove(DataPoint dataPoint) {
+        SeriesWindows windows = series.get(SeriesKey.of(dataPoint));
+        if (windows != null) {
+            windows.markStale();
+        }
+    }
+
+    @Override
+    public void removeOlderThan(LocalDateTime cutoff) {
+        long cutoffMillis = Timestamps.toEpochMillis(cutoff);
+        for (SeriesKey key : series.keySet()) {
+            series.computeIfPresent(key, (k, windows) -> windows.removeOlderThan(cutoffMillis) ? null : windows);
+        }
+    }
+
+    /**
+     * Statistics of every series of a category (or all categories, if null)
+     * for every configured window size, sorted by category, label and window
+     */
+    public List<WindowStats> latest(String category) {
+        List<WindowStats> stats = new ArrayList<>();
+        series.forEach((key, windows) -> {
+            if (category == null || key.category().equals(category)) {
+                windows.snapshot(key, seriesColumnStore.getSeries(key), stats);
+            }
+        });
+        stats.sort(Comparator.comparing(WindowStats::category)
+                .thenComparing(WindowStats::label)
+                .thenComparingInt(WindowStats::window));
+        return stats;
+    }
+
+    private static final class SeriesWindows {
+        private final int[] sizes;
+        // Timestamps of the newest points, as many as the widest window holds
+        private final long[] recent;
+        private SlidingWindow[] windows;
+        private long added;
+        private long newestTimestamp = Long.MIN_VALUE;
+        private boolean stale;
+
+        SeriesWindows(int[] sizes) {
+            this.sizes = sizes;
+            this.recent = new long[Arrays.stream(sizes).max().orElse(1)];
+            this.windows = create(sizes);
+        }
+
+        synchronized void add(long timestamp, double value) {
+            if (timestamp < newestTimestamp) {
+                stale = true;
+                return;
+            }
+            newestTimestamp = timestamp;
+            if (!stale) {
+                append(timestamp, value);
+            }
+        }
+
+        synchronized void markStale() {
+            stale = true;
+        }
+
+        /**
+         * Mark the series stale if the purge reached into its widest window.
+         * Returns true if every point it has seen is older than the cutoff,
+         * so the series can be dropped.
+         */
+        synchronized boolean removeOlderThan(long cutoff) {
+            if (newestTimestamp < cutoff) {
+                return true;
+            }
+            if (stale || added == 0) {
+                return false;
+            }
+            long oldest = recent[(int) (Math.max(0, added - recent.length) % recent.length)];
+            if (oldest < cutoff) {
+                stale = true;
+            }
+            return false;
+        }
+
+        synchronized void snapshot(SeriesKey key, ColumnarSeries columns, List<WindowStats> out) {
+            if (stale) {
+                if (columns == null) {
+                    return;
+                }
+                rebuild(columns);
+            }
+            for (SlidingWindow window : windows) {
+                if (window.count() > 0) {
+                    out.add(new WindowStats(key.category(), key.label(), window.size(), window.count(),
+                            newestTimestamp, window.mean(), window.ema(), window.stdDev(),
+                            window.min(), window.max()));
+                }
+            }
+        }
+
+        private void rebuild(ColumnarSeries columns) {
+            windows = create(sizes);
+            added = 0;
+            newestTimestamp = Long.MIN_VALUE;
+            columns.scanLast(recent.length, (timestamp, value) -> {
+                newestTimestamp = timestamp;
+                append(timestamp, value);
+            });
+            stale = false;
+        }
+
+        private void append(long timestamp, double value) {
+            recent[(int) (added++ % recent.length)] = timestamp;
+            for (SlidingWindow window : windows) {
+                window.add(value);
+            }
+        }
+
+        private static SlidingWindow[] create(int[] sizes) {
+            SlidingWindow[] windows = new SlidingWindow[sizes.length];
+            for (int i = 0; i < sizes.length; i++) {
+                windows[i] = new SlidingWindow(sizes[i]);
+            }
+            return windows;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.dashboard.service;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded, lock-free multi-producer single-consumer ring buffer
+ *
+ * Slots are preallocated and each carries a sequence number saying whose
+ * turn it is: a producer claims the next position with a compare-and-set on
+ * the tail, writes the element, then publishes it by advancing the slot's
+ * sequence; the consumer takes published slots in order and hands them
+ * back by advancing the sequence one lap ahead. Neither side ever blocks;
+ * {@link #offer} fails immediately when the ring is full. The capacity is
+ * rounded up to a power of two.
+ */
+final class MpscRingBuffer<E> {
+
+    private final int mask;
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    MpscRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity) * 2 - 1);
+        this.mask = capacity - 1;
+        this.elements = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Publish an element; false if the ring is full. Safe from any thread.
+     */
+    boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int slot = (int) position & mask;
+            long difference = sequences.get(slot) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements[slot] = element;
+                    sequences.set(slot, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // The slot still holds the element of the previous lap
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Take the oldest published element, or null if there is none.
+     * Consumer thread only.
+     */
+    @SuppressWarnings("unchecked")
+    E poll() {
+        long position = head.get();
+        int slot = (int) position & mask;
+        if (sequences.get(slot) != position + 1) {
+            return null;
+        }
+        E element = (E) elements[slot];
+        elements[slot] = null;
+        sequences.set(slot, position + mask + 1);
+        head.lazySet(position + 1);
+        return element;
+    }
+
+    /**
+     * Move up to max published elements into the target. Consumer thread only.
+     */
+    int drainTo(Collection<? super E> target, int max) {
+        int drained = 0;
+        E element;
+        while (drained < max && (element = poll()) != null) {
+            target.add(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Claimed slots not yet consumed; an estimate while producers are active
+     */
+    int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, mask + 1));
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,226 @@
+package com.dashboard.service;
+
+import com.dashboard.model.DataPoint;
+import com.dashboard.model.RollupResolution;
+import com.dashboard.timeseries.QuantileSketch;
+import com.dashboard.timeseries.SeriesKey;
+import com.dashboard.timeseries.Timestamps;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Quantile sketches of every series per minute, hour and day bucket, the
+ * same buckets as the rollups
+ *
+ * Each committed point is added to the sketch of its bucket at every
+ * resolution, and a deleted point is taken back out. A range is answered by
+ * merging the fewest buckets that cover it: days in the middle, hours and
+ * minutes towards the edges, so no data point is read. The range is widened
+ * to whole minutes. Minute sketches are only kept for the most recent
+ * minute-bucket-hours; older edges are widened to whole hours. Retention
+ * drops the buckets that end before the cutoff.
+ */
+@Component
+public class PercentileIndex implements DataPointIndex {
+
+    private static final long MINUTE_MILLIS = 60_000L;
+    private static final long HOUR_MILLIS = 60 * MINUTE_MILLIS;
+    private static final long DAY_MILLIS = 24 * HOUR_MILLIS;
+
+    @Value("${app.percentiles.relative-accuracy:0.01}")
+    private double relativeAccuracy;
+
+    @Value("${app.percentiles.max-bins:2048}")
+    private int maxBins;
+
+    @Value("${app.percentiles.minute-bucket-hours:48}")
+    private int minuteBucketHours;
+
+    private final Map<RollupResolution, Map<SeriesKey, NavigableMap<Long, QuantileSketch>>> buckets =
+            new EnumMap<>(RollupResolution.class);
+
+    public PercentileIndex() {
+        for (RollupResolution resolution : RollupResolution.values()) {
+            buckets.put(resolution, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Requested quantiles of a range, with the number of points they cover
+     */
+    public record Percentiles(String category, String label, LocalDateTime startTime, LocalDateTime endTime,
+                              long count, List<Quantile> quantiles) {
+    }
+
+    /**
+     * Value at a quantile, or null if the range holds no points
+     */
+    public record Quantile(double quantile, Double value) {
+    }
+
+    @Override
+    public void add(DataPoint dataPoint) {
+        if (dataPoint.getTimestamp() == null || dataPoint.getValue() == null) {
+            return;
+        }
+        long timestamp = Timestamps.toEpochMillis(dataPoint.getTimestamp());
+        SeriesKey key = SeriesKey.of(dataPoint);
+        for (RollupResolution resolution : RollupResolution.values()) {
+            long bucketStart = Math.floorDiv(timestamp, width(resolution)) * width(resolution);
+            if (resolution == RollupResolution.MINUTE && bucketStart < minuteHorizon()) {
+                continue;
+            }
+            QuantileSketch sketch = buckets.get(resolution)
+                    .computeIfAbsent(key, k -> new ConcurrentSkipListMap<>())
+                    .computeIfAbsent(bucketStart, start -> new QuantileSketch(relativeAccuracy, maxBins));
+            synchronized (sketch) {
+                sketch.add(dataPoint.getValue());
+            }
+        }
+    }
+
+    @Override
+    public void remove(DataPoint dataPoint) {
+        if (dataPoint.getTimestamp() == null || dataPoint.getValue() == null) {
+            return;
+        }
+        long timestamp = Timestamps.toEpochMillis(dataPoint.getTimestamp());
+        SeriesKey key = SeriesKey.of(dataPoint);
+        for (RollupResolution resolution : RollupResolution.values()) {
+            NavigableMap<Long, QuantileSketch> series = buckets.get(resolution).get(key);
+            QuantileSketch sketch = series == null ? null
+                    : series.get(Math.floorDiv(timestamp, width(resolution)) * width(resolution));
+            if (sketch != null) {
+                synchronized (sketch) {
+                    sketch.remove(dataPoint.getValue());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void removeOlderThan(LocalDateTime cutoff) {
+        long cutoffMillis = Timestamps.toEpochMillis(cutoff);
+        buckets.forEach((resolution, bySeries) -> dropEndingBefore(bySeries, cutoffMillis, width(resolution)));
+    }
+
+    /**
+     * Drop the minute sketches that fell out of the minute-bucket horizon
+     */
+    @Scheduled(fixedDelayString = "${app.percentiles.prune-interval-ms:600000}")
+    public void pruneMinuteBuckets() {
+        dropEndingBefore(buckets.get(RollupResolution.MINUTE), minuteHorizon(), MINUTE_MILLIS);
+    }
+
+    /**
+     * Quantiles of the points of a category (or all categories, if null), or
+     * of one series when label is given, within a time range
+     */
+    public Percentiles percentiles(String category, String label, LocalDateTime startTime,
+                                   LocalDateTime endTime, double[] quantiles) {
+        long from = floor(Timestamps.toEpochMillis(startTime), MINUTE_MILLIS);
+        long to = floor(Timestamps.toEpochMillis(endTime), MINUTE_MILLIS) + MINUTE_MILLIS;
+
+        QuantileSketch merged = new QuantileSketch(relativeAccuracy, maxBins);
+        List<Segment> segments = cover(from, to);
+        for (SeriesKey key : buckets.get(RollupResolution.HOUR).keySet()) {
+            if (category != null && !key.category().equals(category)
+                    || label != null && !key.label().equals(label)) {
+                continue;
+            }
+            for (Segment segment : segments) {
+                NavigableMap<Long, QuantileSketch> series = buckets.get(segment.resolution()).get(key);
+                if (series == null) {
+                    continue;
+                }
+                for (QuantileSketch sketch : series.subMap(segment.from(), true, segment.to(), false).values()) {
+                    synchronized (sketch) {
+                        merged.merge(sketch);
+                    }
+                }
+            }
+        }
+
+        List<Quantile> values = new ArrayList<>(quantiles.length);
+        for (double q : quantiles) {
+            values.add(new Quantile(q, merged.isEmpty() ? null : merged.quantile(q)));
+        }
+        return new Percentiles(category, label, Timestamps.fromEpochMillis(segments.get(0).from()),
+                Timestamps.fromEpochMillis(segments.get(segments.size() - 1).to()), merged.count(), values);
+    }
+
+    /**
+     * Fewest buckets covering [from, to), both on minute boundaries: minutes
+     * up to the first whole hour, hours up to the first whole day, whole days,
+     * then hours and minutes back down to the end. Minute segments older than
+     * the minute horizon are widened to the hours containing them. The first
+     * segment starts and the last one ends the effective range.
+     */
+    private List<Segment> cover(long from, long to) {
+        List<Segment> segments = new ArrayList<>();
+        long firstHour = ceil(from, HOUR_MILLIS);
+        long lastHour = floor(to, HOUR_MILLIS);
+        if (firstHour >= lastHour) {
+            addMinutes(segments, from, to);
+            return segments;
+        }
+        long firstDay = ceil(firstHour, DAY_MILLIS);
+        long lastDay = floor(lastHour, DAY_MILLIS);
+
+        addMinutes(segments, from, firstHour);
+        if (firstDay >= lastDay) {
+            segments.add(new Segment(RollupResolution.HOUR, firstHour, lastHour));
+        } else {
+            segments.add(new Segment(RollupResolution.HOUR, firstHour, firstDay));
+            segments.add(new Segment(RollupResolution.DAY, firstDay, lastDay));
+            segments.add(new Segment(RollupResolution.HOUR, lastDay, lastHour));
+        }
+        addMinutes(segments, lastHour, to);
+        return segments;
+    }
+
+    private void addMinutes(List<Segment> segments, long from, long to) {
+        if (from >= to) {
+            return;
+        }
+        if (from < minuteHorizon()) {
+            segments.add(new Segment(RollupResolution.HOUR, floor(from, HOUR_MILLIS), ceil(to, HOUR_MILLIS)));
+        } else {
+            segments.add(new Segment(RollupResolution.MINUTE, from, to));
+        }
+    }
+
+    private long minuteHorizon() {
+        return floor(Timestamps.toEpochMillis(LocalDateTime.now()) - minuteBucketHours * HOUR_MILLIS, MINUTE_MILLIS);
+    }
+
+    private static void dropEndingBefore(Map<SeriesKey, NavigableMap<Long, QuantileSketch>> bySeries,
+                                         long cutoff, long width) {
+        bySeries.values().forEach(series -> series.headMap(cutoff - width, true).clear());
+    }
+
+    private static long width(RollupResolution resolution) {
+        return resolution.getUnit().getDuration().toMillis();
+    }
+
+    private static long floor(long millis, long unit) {
+        return Math.floorDiv(millis, unit) * unit;
+    }
+
+    private static long ceil(long millis, long unit) {
+        return -Math.floorDiv(-millis, unit) * unit;
+    }
+
+    private record Segment(RollupResolution resolution, long from, long to) {
+    }
+}
@@ -0,0 +1,144 @@
+package com.dashboard.service;
+
+import com.dashboard.model.DataPoint;
+import com.dashboard.timeseries.SeriesKey;
+import com.dashboard.timeseries.SeriesRingBuffer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hot-tier store of the newest data points per (category, label) series
+ * 
+ * Serves the recent dashboard reads from memory. Each series keeps
+ * a ring buffer of at least {@link #MIN_SERIES_CAPACITY} points, so a top-N
+ * read across series with N up to that bound is exact: no series can
+ * contribute more than N points to the result.
+ */
+@Component
+public class RecentDataStore implements DataPointIndex {
+
+    /**
+     * Largest limit served by the recent endpoints
+     */
+    public static final int MIN_SERIES_CAPACITY = 100;
+
+    private static final Comparator<DataPoint> NEWEST_FIRST =
+            Comparator.comparing(DataPoint::getTimestamp).reversed();
+
+    @Value("${app.hot-store.series-capacity:500}")
+    private int seriesCapacity;
+
+    private final Map<SeriesKey, SeriesRingBuffer> series = new ConcurrentHashMap<>();
+
+    @Override
+    public void add(DataPoint dataPoint) {
+        series.computeIfAbsent(SeriesKey.of(dataPoint),
+                key -> new SeriesRingBuffer(Math.max(seriesCapacity, MIN_SERIES_CAPACITY)))
+              .add(dataPoint);
+    }
+
+    @Override
+    public void remove(DataPoint dataPoint) {
+        SeriesRingBuffer buffer = series.get(SeriesKey.of(dataPoint));
+        if (buffer != null) {
+            buffer.remove(dataPoint.getId());
+        }
+    }
+
+    @Override
+    public void removeOlderThan(LocalDateTime cutoff) {
+        series.values().forEach(buffer -> buffer.removeOlderThan(cutoff));
+    }
+
+    /**
+     * Newest points across all series, newest first
+     */
+    public List<DataPoint> recent(int limit) {
+        return mergeNewest(new ArrayList<>(series.values()), limit);
+    }
+
+    /**
+     * Newest points of one category, newest first
+     */
+    public List<DataPoint> recentByCategory(String category, int limit) {
+        List<SeriesRingBuffer> buffers = new ArrayList<>();
+        series.forEach((key, buffer) -> {
+            if (key.category().equals(category)) {
+                buffers.add(buffer);
+            }
+        });
+        return mergeNewest(buffers, limit);
+    }
+
+    /**
+     * Newest point of one series other than the given id, or null if the
+     * series holds no other point
+     */
+    public DataPoint latestInSeries(SeriesKey key, Long excludedId) {
+        SeriesRingBuffer buffer = series.get(key);
+        if (buffer == null) {
+            return null;
+        }
+        for (DataPoint candidate : buffer.newestFirst(2)) {
+            if (!Objects.equals(candidate.getId(), excludedId)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * K-way merge of the per-series newest-first snapshots
+     */
+    private List<DataPoint> mergeNewest(List<SeriesRingBuffer> buffers, int limit) {
+        PriorityQueue<Cursor> heap = new PriorityQueue<>(
+                Math.max(1, buffers.size()),
+                Comparator.comparing(Cursor::peek, NEWEST_FIRST));
+        for (SeriesRingBuffer buffer : buffers) {
+            List<DataPoint> snapshot = buffer.newestFirst(limit);
+            if (!snapshot.isEmpty()) {
+                heap.add(new Cursor(snapshot));
+            }
+        }
+
+        List<DataPoint> result = new ArrayList<>(limit);
+        while (result.size() < limit && !heap.isEmpty()) {
+            Cursor cursor = heap.poll();
+            result.add(cursor.next());
+            if (cursor.hasNext()) {
+                heap.add(cursor);
+            }
+        }
+        return result;
+    }
+
+    private static final class Cursor {
+        private final List<DataPoint> points;
+        private int position;
+
+        Cursor(List<DataPoint> points) {
+            this.points = points;
+        }
+
+        DataPoint peek() {
+            return points.get(position);
+        }
+
+        DataPoint next() {
+            return points.get(position++);
+        }
+
+        boolean hasNext() {
+            return position < points.size();
+        }
+    }
+}
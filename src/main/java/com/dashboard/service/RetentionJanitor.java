@@ -0,0 +1,148 @@
+package com.dashboard.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Scheduled enforcement of the data point retention period
+ *
+ * Data is retained in whole-day partitions: a purge drops every local day
+ * that ended more than daysToKeep days ago, oldest first, jumping from one
+ * day that has data straight to the next. The table has no native
+ * partitions, so each day is removed with set-based deletes over the
+ * (timestamp, id) index, split into chunks of at most chunk-size points
+ * bounded by keyset range reads, each in its own transaction, with a pause
+ * between chunks so live ingest is not starved. The in-memory indexes
+ * already drop whole chunks or buckets for a time cutoff.
+ */
+@Service
+public class RetentionJanitor {
+
+    @Autowired
+    private DataPointService dataPointService;
+
+    @Value("${app.data-cleanup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.data-cleanup.days-to-keep:30}")
+    private int daysToKeep;
+
+    @Value("${app.data-cleanup.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${app.data-cleanup.chunk-pause-ms:50}")
+    private long chunkPauseMs;
+
+    private final Counter partitionsDropped;
+    private final Counter pointsDeleted;
+
+    public RetentionJanitor(MeterRegistry meterRegistry) {
+        this.partitionsDropped = Counter.builder("dashboard.retention.partitions.dropped")
+                .description("Day partitions dropped by retention")
+                .register(meterRegistry);
+        this.pointsDeleted = Counter.builder("dashboard.retention.points.deleted")
+                .description("Data points deleted by retention")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Days and data points removed by one purge
+     */
+    public record Result(int partitionsDropped, long pointsDeleted) {
+    }
+
+    /**
+     * Purge with the configured retention period
+     */
+    @Scheduled(fixedDelayString = "${app.data-cleanup.interval-ms:3600000}",
+               initialDelayString = "${app.data-cleanup.initial-delay-ms:60000}")
+    public void purgeExpired() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Result result = purge(daysToKeep);
+            if (result.pointsDeleted() > 0) {
+                System.out.println("Retention dropped " + result.partitionsDropped() + " day(s), "
+                        + result.pointsDeleted() + " data points");
+            }
+        } catch (Exception e) {
+            System.err.println("Error enforcing data retention: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Drop every day partition older than daysToKeep days. Only days that
+     * held data count as dropped.
+     */
+    public synchronized Result purge(int daysToKeep) {
+        LocalDateTime cutoff = cutoffFor(daysToKeep);
+        int partitions = 0;
+        long deleted = 0;
+        LocalDateTime oldest = dataPointService.getOldestTimestamp();
+        while (oldest != null && oldest.isBefore(cutoff)) {
+            LocalDateTime end = oldest.toLocalDate().plusDays(1).atStartOfDay();
+            long dropped = dropPartition(oldest, end);
+            deleted += dropped;
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+            if (dropped > 0) {
+                partitions++;
+                partitionsDropped.increment();
+            }
+            oldest = dataPointService.getOldestTimestampFrom(end);
+        }
+        return new Result(partitions, deleted);
+    }
+
+    /**
+     * Start of the oldest day still retained when keeping daysToKeep days
+     */
+    public static LocalDateTime cutoffFor(int daysToKeep) {
+        return LocalDate.now().minusDays(daysToKeep).atStartOfDay();
+    }
+
+    /**
+     * Delete everything from the oldest point of a day partition to its end,
+     * chunk by chunk. Stops early, with the interrupt flag set, if the
+     * thread is interrupted.
+     *
+     * @return points deleted
+     */
+    private long dropPartition(LocalDateTime from, LocalDateTime end) {
+        long deleted = 0;
+        while (true) {
+            // Everything before the chunk-size-th point from here is at most one chunk
+            LocalDateTime boundary = dataPointService.getTimestampAfterCount(from, end, chunkSize);
+            if (boundary == null) {
+                boundary = end;
+            }
+            int chunk = dataPointService.deleteDataPointsBefore(boundary);
+            if (chunk == 0 && boundary.isBefore(end)) {
+                // More than a chunk share the oldest timestamp: take them together
+                boundary = boundary.plusNanos(1);
+                chunk = dataPointService.deleteDataPointsBefore(boundary);
+            }
+            deleted += chunk;
+            pointsDeleted.increment(chunk);
+            if (!boundary.isBefore(end)) {
+                return deleted;
+            }
+            from = boundary;
+            try {
+                Thread.sleep(chunkPauseMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return deleted;
+            }
+        }
+    }
+}
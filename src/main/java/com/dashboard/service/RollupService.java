@@ -0,0 +1,181 @@
+package com.dashboard.service;
+
+import com.dashboard.model.DataPoint;
+import com.dashboard.model.RollupResolution;
+import com.dashboard.repository.DataPointRepository;
+import com.dashboard.repository.RollupBucketRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service maintaining the minute/hour/day rollup tables
+ * 
+ * Rollups are folded in as part of the ingest transaction with one atomic
+ * UPDATE per touched bucket. A bucket the UPDATE does not find yet is
+ * created with a plain INSERT in the same transaction; if another writer
+ * creates it first, the INSERT fails alone on the unique key and the UPDATE
+ * is retried against that writer's row. This relies on a failed statement
+ * leaving the transaction usable, as on H2 and MySQL. Retention takes
+ * expired points out of the rollups in the transaction that deletes them.
+ */
+@Service
+@Transactional
+public class RollupService {
+    
+    private static final DateTimeFormatter HOUR_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:00:00");
+    
+    private static final String INSERT_BUCKET_SQL = "INSERT INTO data_rollups "
+            + "(resolution, category, label, bucket_start, point_count, sum_value) VALUES (?, ?, ?, ?, 0, 0)";
+    
+    @Autowired
+    private RollupBucketRepository rollupBucketRepository;
+    
+    @Autowired
+    private DataPointRepository dataPointRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    /**
+     * Fold saved data points into every rollup resolution
+     */
+    public void record(List<DataPoint> dataPoints) {
+        Map<BucketKey, Delta> deltas = new LinkedHashMap<>();
+        for (DataPoint dataPoint : dataPoints) {
+            for (RollupResolution resolution : RollupResolution.values()) {
+                deltas.computeIfAbsent(BucketKey.of(resolution, dataPoint), key -> new Delta())
+                      .add(dataPoint.getValue());
+            }
+        }
+        
+        deltas.forEach((key, delta) -> {
+            if (accumulate(key, delta) == 0) {
+                insertIfAbsent(key);
+                accumulate(key, delta);
+            }
+        });
+    }
+    
+    /**
+     * Take a deleted data point out of every rollup resolution
+     */
+    public void remove(DataPoint dataPoint) {
+        for (RollupResolution resolution : RollupResolution.values()) {
+            BucketKey key = BucketKey.of(resolution, dataPoint);
+            rollupBucketRepository.subtract(key.resolution().name(), key.category(), key.label(),
+                    key.bucketStart(), dataPoint.getValue());
+        }
+    }
+    
+    /**
+     * Take every data point older than the cutoff out of the rollups; call
+     * before deleting them. Buckets that end by the cutoff are dropped, and
+     * the bucket containing the cutoff loses the count and sum of its points
+     * before it (its min and max keep their previous bounds).
+     */
+    public void removeBefore(LocalDateTime cutoff) {
+        for (RollupResolution resolution : RollupResolution.values()) {
+            LocalDateTime bucketStart = resolution.bucketStart(cutoff);
+            if (bucketStart.isBefore(cutoff)) {
+                for (Object[] row : dataPointRepository.sumBySeriesBetween(bucketStart, cutoff)) {
+                    rollupBucketRepository.subtractAll(resolution.name(), (String) row[0], (String) row[1], bucketStart,
+                            ((Number) row[2]).longValue(), ((Number) row[3]).doubleValue());
+                }
+            }
+            rollupBucketRepository.deleteByResolutionAndBucketStartBefore(resolution, bucketStart);
+        }
+    }
+    
+    /**
+     * Hourly [hour, avg, min, max, count] rows of a category, starting with
+     * the hour containing startTime
+     */
+    @Transactional(readOnly = true)
+    public List<Object[]> getHourlyAggregatedData(String category, LocalDateTime startTime) {
+        List<Object[]> rows = rollupBucketRepository.aggregateByBucket(
+                RollupResolution.HOUR, category, RollupResolution.HOUR.bucketStart(startTime));
+        
+        List<Object[]> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Object[] formatted = row.clone();
+            formatted[0] = ((LocalDateTime) row[0]).format(HOUR_FORMAT);
+            result.add(formatted);
+        }
+        return result;
+    }
+    
+    /**
+     * [category, sum, count] rows since startTime, built from hour buckets plus
+     * the minute buckets leading up to the first whole hour. Points in the
+     * partial minute at startTime are not counted.
+     */
+    @Transactional(readOnly = true)
+    public List<Object[]> getAggregatedDataByCategory(LocalDateTime startTime) {
+        LocalDateTime minuteStart = RollupResolution.MINUTE.firstBucketFrom(startTime);
+        LocalDateTime hourStart = RollupResolution.HOUR.firstBucketFrom(startTime);
+        return rollupBucketRepository.aggregateByCategory(minuteStart, hourStart);
+    }
+    
+    /**
+     * [min, max] of the values within the hours overlapping a range, for a
+     * category and label (or all, if null), or null if there are none
+     */
+    @Transactional(readOnly = true)
+    public double[] getValueBounds(String category, String label, LocalDateTime startTime, LocalDateTime endTime) {
+        List<Object[]> rows = rollupBucketRepository.findValueBounds(
+                category, label, RollupResolution.HOUR.bucketStart(startTime), endTime);
+        if (rows.isEmpty() || rows.get(0)[0] == null || rows.get(0)[1] == null) {
+            return null;
+        }
+        return new double[] {((Number) rows.get(0)[0]).doubleValue(), ((Number) rows.get(0)[1]).doubleValue()};
+    }
+    
+    private int accumulate(BucketKey key, Delta delta) {
+        return rollupBucketRepository.accumulate(key.resolution().name(), key.category(), key.label(),
+                key.bucketStart(), delta.count, delta.sum, delta.min, delta.max);
+    }
+    
+    /**
+     * Create an empty bucket row unless it exists, in the caller's transaction
+     */
+    private void insertIfAbsent(BucketKey key) {
+        try {
+            jdbcTemplate.update(INSERT_BUCKET_SQL, key.resolution().name(), key.category(), key.label(),
+                    key.bucketStart());
+        } catch (DuplicateKeyException e) {
+            // Another writer created the same bucket first and has committed it
+        }
+    }
+    
+    private record BucketKey(RollupResolution resolution, String category, String label, LocalDateTime bucketStart) {
+        
+        static BucketKey of(RollupResolution resolution, DataPoint dataPoint) {
+            return new BucketKey(resolution, dataPoint.getCategory(), dataPoint.getLabel(),
+                    resolution.bucketStart(dataPoint.getTimestamp()));
+        }
+    }
+    
+    private static final class Delta {
+        long count;
+        double sum;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        
+        void add(double value) {
+            count++;
+            sum += value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+    }
+}
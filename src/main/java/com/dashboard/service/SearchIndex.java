@@ -0,0 +1,282 @@
+package com.dashboard.service;
+
+import com.dashboard.model.DataPoint;
+import com.dashboard.timeseries.Timestamps;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Inverted index over data point labels and descriptions
+ *
+ * Text is split into lower-case letter/digit tokens. Each token maps to its
+ * postings, the (timestamp, id) of every point containing it, ordered
+ * newest first. A query matches points containing all of its tokens, the
+ * last one optionally as a prefix; results come out newest first by walking
+ * the postings from the continuation position, so a page costs the same
+ * regardless of table size. Writes are serialized; searches run lock-free
+ * on the concurrent skip lists.
+ */
+@Component
+public class SearchIndex implements DataPointIndex {
+
+    private final ConcurrentSkipListMap<String, NavigableSet<Posting>> postings = new ConcurrentSkipListMap<>();
+
+    /**
+     * A point in a token's postings, ordered newest first and then by descending id
+     */
+    public record Posting(long timestamp, long id) implements Comparable<Posting> {
+
+        @Override
+        public int compareTo(Posting other) {
+            int byTime = Long.compare(other.timestamp, timestamp);
+            return byTime != 0 ? byTime : Long.compare(other.id, id);
+        }
+
+        static Posting of(DataPoint dataPoint) {
+            return new Posting(Timestamps.toEpochMillis(dataPoint.getTimestamp()), dataPoint.getId());
+        }
+
+        /**
+         * Opaque continuation token resuming after this posting
+         */
+        public String toCursor() {
+            String token = timestamp + ":" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * @throws IllegalArgumentException if the cursor is malformed
+         */
+        public static Posting fromCursor(String cursor) {
+            try {
+                String token = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = token.indexOf(':');
+                return new Posting(Long.parseLong(token.substring(0, separator)),
+                        Long.parseLong(token.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Malformed cursor", e);
+            }
+        }
+    }
+
+    /**
+     * Ids of matching points, newest first, and the cursor of the next page (null on the last page)
+     */
+    public record Result(List<Long> ids, String nextCursor) {
+    }
+
+    @Override
+    public synchronized void add(DataPoint dataPoint) {
+        if (dataPoint.getId() == null) {
+            return;
+        }
+        Posting posting = Posting.of(dataPoint);
+        for (String token : tokens(dataPoint)) {
+            postings.computeIfAbsent(token, key -> new ConcurrentSkipListSet<>()).add(posting);
+        }
+    }
+
+    @Override
+    public synchronized void remove(DataPoint dataPoint) {
+        if (dataPoint.getId() == null) {
+            return;
+        }
+        Posting posting = Posting.of(dataPoint);
+        for (String token : tokens(dataPoint)) {
+            NavigableSet<Posting> set = postings.get(token);
+            if (set != null && set.remove(posting) && set.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void removeOlderThan(LocalDateTime cutoff) {
+        // Everything after this posting in newest-first order is older than the cutoff
+        Posting boundary = new Posting(Timestamps.toEpochMillis(cutoff), Long.MIN_VALUE);
+        Iterator<NavigableSet<Posting>> sets = postings.values().iterator();
+        while (sets.hasNext()) {
+            NavigableSet<Posting> set = sets.next();
+            set.tailSet(boundary, false).clear();
+            if (set.isEmpty()) {
+                sets.remove();
+            }
+        }
+    }
+
+    /**
+     * Find points whose label or description contains every token of the
+     * query, newest first
+     *
+     * @param prefix whether the last query token also matches longer tokens
+     * @param after continuation position, or null for the first page
+     */
+    public Result search(String query, boolean prefix, int limit, Posting after) {
+        List<String> terms = new ArrayList<>(tokenize(query));
+        if (terms.isEmpty()) {
+            return new Result(List.of(), null);
+        }
+
+        List<Collection<NavigableSet<Posting>>> matchers = new ArrayList<>(terms.size());
+        int driver = -1;
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.get(i);
+            Collection<NavigableSet<Posting>> sets;
+            if (prefix && i == terms.size() - 1) {
+                sets = postings.subMap(term, true, term + Character.MAX_VALUE, true).values();
+            } else {
+                NavigableSet<Posting> set = postings.get(term);
+                sets = set == null ? List.of() : List.of(set);
+                if (driver < 0) {
+                    driver = i;
+                }
+            }
+            if (sets.isEmpty()) {
+                return new Result(List.of(), null);
+            }
+            matchers.add(sets);
+        }
+        // Walk an exact term's postings when there is one: a prefix expands to a merge
+        if (driver < 0) {
+            driver = terms.size() - 1;
+        }
+
+        List<Long> ids = new ArrayList<>();
+        Posting last = null;
+        Iterator<Posting> candidates = mergedFrom(matchers.get(driver), after);
+        while (candidates.hasNext()) {
+            Posting candidate = candidates.next();
+            if (!matchesAll(matchers, driver, candidate)) {
+                continue;
+            }
+            if (ids.size() == limit) {
+                return new Result(ids, last.toCursor());
+            }
+            ids.add(candidate.id());
+            last = candidate;
+        }
+        return new Result(ids, null);
+    }
+
+    /**
+     * Lower-case letter/digit tokens of a text, without duplicates
+     */
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static Set<String> tokens(DataPoint dataPoint) {
+        Set<String> tokens = tokenize(dataPoint.getLabel());
+        tokens.addAll(tokenize(dataPoint.getDescription()));
+        return tokens;
+    }
+
+    private static boolean matchesAll(List<Collection<NavigableSet<Posting>>> matchers, int driver, Posting posting) {
+        for (int i = 0; i < matchers.size(); i++) {
+            if (i == driver) {
+                continue;
+            }
+            boolean found = false;
+            for (NavigableSet<Posting> set : matchers.get(i)) {
+                if (set.contains(posting)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Newest-first union of the given postings, strictly after the continuation position
+     */
+    private static Iterator<Posting> mergedFrom(Collection<NavigableSet<Posting>> sets, Posting after) {
+        if (sets.size() == 1) {
+            NavigableSet<Posting> set = sets.iterator().next();
+            return (after == null ? set : set.tailSet(after, false)).iterator();
+        }
+
+        PriorityQueue<PeekingIterator> heads = new PriorityQueue<>();
+        for (NavigableSet<Posting> set : sets) {
+            PeekingIterator head = new PeekingIterator((after == null ? set : set.tailSet(after, false)).iterator());
+            if (head.peek != null) {
+                heads.add(head);
+            }
+        }
+        return new Iterator<>() {
+            private Posting previous;
+
+            @Override
+            public boolean hasNext() {
+                // A point with several tokens sharing the prefix appears in several sets
+                while (!heads.isEmpty() && heads.peek().peek.equals(previous)) {
+                    advance();
+                }
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public Posting next() {
+                hasNext();
+                previous = advance();
+                return previous;
+            }
+
+            private Posting advance() {
+                PeekingIterator head = heads.poll();
+                Posting posting = head.next();
+                if (head.peek != null) {
+                    heads.add(head);
+                }
+                return posting;
+            }
+        };
+    }
+
+    private static final class PeekingIterator implements Comparable<PeekingIterator> {
+        private final Iterator<Posting> iterator;
+        private Posting peek;
+
+        PeekingIterator(Iterator<Posting> iterator) {
+            this.iterator = iterator;
+            this.peek = iterator.hasNext() ? iterator.next() : null;
+        }
+
+        Posting next() {
+            Posting current = peek;
+            peek = iterator.hasNext() ? iterator.next() : null;
+            return current;
+        }
+
+        @Override
+        public int compareTo(PeekingIterator other) {
+            return peek.compareTo(other.peek);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.dashboard.service;
+
+import com.dashboard.model.DataPoint;
+import com.dashboard.storage.LogRecord;
+import com.dashboard.storage.SegmentLog;
+import com.dashboard.timeseries.Timestamps;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Segment-log storage engine for data points
+ *
+ * With app.storage.engine=segment-log, every committed save, update, delete
+ * and retention purge is appended to a {@link SegmentLog} on disk, and the
+ * in-memory database becomes a query store rebuilt from it. On startup,
+ * before the web server starts and before the in-memory indexes are
+ * rebuilt, the log is replayed into the database with the original ids,
+ * and the rollups are recomputed from the surviving points. Truncations
+ * are applied before loading, and at runtime they take the same points
+ * out of the rollups, so the restored rollups match the ones before the
+ * restart. A restart therefore keeps the data
+ * without a file-backed database on the write path. With the default
+ * engine, jpa, nothing is logged and the database is the only store.
+ *
+ * Replay skips what retention has already expired. When superseded records
+ * outnumber live ones, the log is compacted after replay. Appends are
+ * flushed to disk every sync interval, so a crash loses at most that
+ * window.
+ */
+@Service
+public class SegmentLogStore implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(SegmentLogStore.class);
+
+    private static final String INSERT_SQL = "INSERT INTO data_points "
+            + "(id, category, \"value\", label, source, description, timestamp, unit, metadata) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Value("${app.storage.engine:jpa}")
+    private String engine;
+
+    @Value("${app.storage.segment-log.directory:data/segments}")
+    private String directory;
+
+    @Value("${app.storage.segment-log.segment-bytes:67108864}")
+    private int segmentBytes;
+
+    @Value("${app.storage.segment-log.index-interval:256}")
+    private int indexInterval;
+
+    @Value("${app.data-cleanup.enabled:true}")
+    private boolean retentionEnabled;
+
+    @Value("${app.data-cleanup.days-to-keep:30}")
+    private int daysToKeep;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter appendErrors;
+
+    private volatile SegmentLog segmentLog;
+    private volatile boolean running;
+
+    public SegmentLogStore(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.appendErrors = Counter.builder("dashboard.storage.append.errors")
+                .description("Data point changes that could not be appended to the segment log")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void registerGauges() {
+        Gauge.builder("dashboard.storage.segments", this, store -> store.segmentLog == null ? 0 : store.segmentLog.getSegmentCount())
+                .description("Segment files in the data point log")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return "segment-log".equalsIgnoreCase(engine);
+    }
+
+    /**
+     * A data point was saved or updated and committed
+     */
+    public void logSave(DataPoint dataPoint) {
+        append(LogRecord.put(dataPoint));
+    }
+
+    /**
+     * A data point was deleted, or moved away by an update, and committed.
+     * The argument is a snapshot of the point as it was stored.
+     */
+    public void logDelete(DataPoint dataPoint) {
+        append(LogRecord.delete(dataPoint));
+    }
+
+    /**
+     * Every data point older than the cutoff was deleted and committed
+     */
+    public void logTruncate(LocalDateTime cutoff) {
+        if (append(LogRecord.truncate(cutoff))) {
+            segmentLog.dropSegmentsBefore(Timestamps.toEpochMillis(cutoff));
+        }
+    }
+
+    /**
+     * Flush appended records to disk
+     */
+    @Scheduled(fixedDelayString = "${app.storage.segment-log.sync-interval-ms:1000}")
+    public void sync() {
+        SegmentLog current = segmentLog;
+        if (current != null) {
+            current.force();
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            SegmentLog opened = new SegmentLog(Path.of(directory), segmentBytes, indexInterval);
+            opened.open();
+            int loaded = recover(opened);
+            segmentLog = opened;
+            running = true;
+            log.info("Recovered {} data points from {} log segment(s) in {} ms", loaded, opened.getSegmentCount(),
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the data point log in " + directory, e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        SegmentLog current = segmentLog;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Start before everything else, so the data is back before the web
+     * server and the ingest writer start, and stop after them
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MIN_VALUE;
+    }
+
+    private boolean append(LogRecord record) {
+        SegmentLog current = segmentLog;
+        if (current == null) {
+            return false;
+        }
+        try {
+            current.append(record);
+            return true;
+        } catch (RuntimeException e) {
+            appendErrors.increment();
+            log.error("Error appending to the data point log", e);
+            return false;
+        }
+    }
+
+    /**
+     * Replay the log into the database and rollups
+     *
+     * @return the number of data points loaded
+     */
+    private int recover(SegmentLog opened) throws IOException {
+        LocalDateTime retentionCutoff = retentionEnabled ? RetentionJanitor.cutoffFor(daysToKeep) : null;
+        Replay replay = new Replay(retentionCutoff);
+        opened.replay(retentionCutoff == null ? Long.MIN_VALUE : Timestamps.toEpochMillis(retentionCutoff),
+                replay::apply);
+        List<LogRecord> live = replay.live();
+
+        long maxId = 0;
+        for (int from = 0; from < live.size(); from += LOAD_BATCH_SIZE) {
+            List<LogRecord> batch = live.subList(from, Math.min(live.size(), from + LOAD_BATCH_SIZE));
+            List<Object[]> rows = new ArrayList<>(batch.size());
+            List<DataPoint> points = new ArrayList<>(batch.size());
+            for (LogRecord record : batch) {
+                DataPoint dp = record.dataPoint();
+                rows.add(new Object[] {dp.getId(), dp.getCategory(), dp.getValue(), dp.getLabel(), dp.getSource(),
+                        dp.getDescription(), dp.getTimestamp(), dp.getUnit(), dp.getMetadata()});
+                points.add(dp);
+                maxId = Math.max(maxId, dp.getId());
+            }
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            rollupService.record(points);
+        }
+        if (maxId > 0) {
+            // Hand out new ids after the recovered ones, whatever block the pooled optimizer takes
+            jdbcTemplate.execute("ALTER SEQUENCE data_points_seq RESTART WITH "
+                    + (maxId + DataPoint.ID_ALLOCATION_SIZE + 1));
+        }
+
+        if (replay.records > 2L * live.size()) {
+            opened.compact(live);
+        }
+        return live.size();
+    }
+
+    /**
+     * Live state of the log: the last PUT of every id not deleted or
+     * truncated after it, and not expired by retention
+     */
+    private static final class Replay {
+
+        private final LocalDateTime retentionCutoff;
+        private final Map<Long, Put> puts = new HashMap<>();
+        private final List<Long> truncateSequences = new ArrayList<>();
+        private final List<LocalDateTime> truncateCutoffs = new ArrayList<>();
+        private long records;
+
+        Replay(LocalDateTime retentionCutoff) {
+            this.retentionCutoff = retentionCutoff;
+        }
+
+        void apply(LogRecord record) {
+            long sequence = records++;
+            switch (record.type()) {
+                case PUT -> {
+                    if (retentionCutoff == null || !record.timestamp().isBefore(retentionCutoff)) {
+                        puts.put(record.id(), new Put(record, sequence));
+                    } else {
+                        puts.remove(record.id());
+                    }
+                }
+                case DELETE -> puts.remove(record.id());
+                case TRUNCATE -> {
+                    truncateSequences.add(sequence);
+                    truncateCutoffs.add(record.timestamp());
+                }
+            }
+        }
+
+        List<LogRecord> live() {
+            // Latest cutoff among the truncations at or after each position
+            LocalDateTime[] laterCutoff = new LocalDateTime[truncateCutoffs.size()];
+            for (int i = laterCutoff.length - 1; i >= 0; i--) {
+                LocalDateTime cutoff = truncateCutoffs.get(i);
+                laterCutoff[i] = i + 1 < laterCutoff.length && laterCutoff[i + 1].isAfter(cutoff)
+                        ? laterCutoff[i + 1] : cutoff;
+            }
+            long[] sequences = truncateSequences.stream().mapToLong(Long::longValue).toArray();
+
+            List<LogRecord> live = new ArrayList<>(puts.size());
+            for (Put put : puts.values()) {
+                int next = Arrays.binarySearch(sequences, put.sequence);
+                next = next >= 0 ? next + 1 : -next - 1;
+                if (next == sequences.length || !put.record.timestamp().isBefore(laterCutoff[next])) {
+                    live.add(put.record);
+                }
+            }
+            live.sort(Comparator.comparingLong(LogRecord::id));
+            return live;
+        }
+    }
+
+    private record Put(LogRecord record, long sequence) {
+    }
+}
@@ -0,0 +1,246 @@
+package com.dashboard.service;
+
+import com.dashboard.model.DataPoint;
+import com.dashboard.timeseries.BinGrid;
+import com.dashboard.timeseries.ColumnarSeries;
+import com.dashboard.timeseries.Downsampler;
+import com.dashboard.timeseries.PointVisitor;
+import com.dashboard.timeseries.ScatterGrid;
+import com.dashboard.timeseries.SeriesCursor;
+import com.dashboard.timeseries.SeriesKey;
+import com.dashboard.timeseries.SeriesSample;
+import com.dashboard.timeseries.SlidingWindow;
+import com.dashboard.timeseries.Timestamps;
+import com.dashboard.timeseries.WindowSample;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Columnar store of the full (timestamp, value) history of every series
+ * 
+ * Backs the time-range reads so they never hydrate DataPoint entities.
+ */
+@Component
+public class SeriesColumnStore implements DataPointIndex {
+
+    @Value("${app.column-store.chunk-size:1024}")
+    private int chunkSize;
+
+    private final Map<SeriesKey, ColumnarSeries> series = new ConcurrentHashMap<>();
+
+    @Override
+    public void add(DataPoint dataPoint) {
+        ColumnarSeries columns = series.computeIfAbsent(SeriesKey.of(dataPoint),
+                key -> new ColumnarSeries(chunkSize));
+        columns.add(Timestamps.toEpochMillis(dataPoint.getTimestamp()), dataPoint.getValue(), dataPoint.getId());
+        if (dataPoint.getUnit() != null) {
+            columns.setUnit(dataPoint.getUnit());
+        }
+    }
+
+    @Override
+    public void remove(DataPoint dataPoint) {
+        ColumnarSeries columns = series.get(SeriesKey.of(dataPoint));
+        if (columns != null) {
+            columns.remove(Timestamps.toEpochMillis(dataPoint.getTimestamp()), dataPoint.getId());
+        }
+    }
+
+    @Override
+    public void removeOlderThan(LocalDateTime cutoff) {
+        long cutoffMillis = Timestamps.toEpochMillis(cutoff);
+        series.values().forEach(columns -> columns.removeOlderThan(cutoffMillis));
+    }
+
+    /**
+     * Columns of one series, or null if the series is unknown
+     */
+    public ColumnarSeries getSeries(SeriesKey key) {
+        return series.get(key);
+    }
+
+    /**
+     * Keys of every series in a category, or of all series if category is null
+     */
+    public List<SeriesKey> seriesKeys(String category) {
+        List<SeriesKey> keys = new ArrayList<>();
+        for (SeriesKey key : series.keySet()) {
+            if (category == null || key.category().equals(category)) {
+                keys.add(key);
+            }
+        }
+        keys.sort(Comparator.comparing(SeriesKey::category).thenComparing(SeriesKey::label));
+        return keys;
+    }
+
+    /**
+     * Copy the points of the matching series within the range into compact
+     * per-series columns, ascending by time
+     */
+    public List<SeriesData> range(String category, LocalDateTime startTime, LocalDateTime endTime) {
+        long from = Timestamps.toEpochMillis(startTime);
+        long to = Timestamps.toEpochMillis(endTime);
+        if (from > to) {
+            return List.of();
+        }
+
+        List<SeriesData> result = new ArrayList<>();
+        for (SeriesKey key : seriesKeys(category)) {
+            ColumnarSeries columns = series.get(key);
+            int count = columns.count(from, to);
+            if (count == 0) {
+                continue;
+            }
+            long[] timestamps = new long[count];
+            double[] values = new double[count];
+            int[] position = {0};
+            columns.scan(from, to, (timestamp, value) -> {
+                // A concurrent insert may have grown the range since counting
+                if (position[0] < count) {
+                    timestamps[position[0]] = timestamp;
+                    values[position[0]] = value;
+                    position[0]++;
+                }
+            });
+            result.add(new SeriesData(key.category(), key.label(), columns.getUnit(),
+                    trim(timestamps, position[0]), trim(values, position[0])));
+        }
+        return result;
+    }
+
+    /**
+     * Downsample the points of each matching series within the range to at
+     * most {@code maxPoints} samples. Series are downsampled separately, so
+     * LTTB and MinMax never pick points across unrelated series; each is read
+     * one cursor page at a time, and nothing is materialized beyond the
+     * downsampler's own bounded state.
+     */
+    public List<DownsampledSeries> downsample(String category, String label, LocalDateTime startTime,
+                                              LocalDateTime endTime, String method, int maxPoints) {
+        long from = Timestamps.toEpochMillis(startTime);
+        long to = Timestamps.toEpochMillis(endTime);
+        if (from > to) {
+            return List.of();
+        }
+
+        List<DownsampledSeries> result = new ArrayList<>();
+        for (SeriesKey key : select(category, label)) {
+            ColumnarSeries columns = series.get(key);
+            int count = columns.count(from, to);
+            if (count == 0) {
+                continue;
+            }
+            Downsampler downsampler = Downsampler.create(method, count, maxPoints);
+            scanPaged(columns, from, to, downsampler);
+            result.add(new DownsampledSeries(key.category(), key.label(), columns.getUnit(), downsampler.finish()));
+        }
+        return result;
+    }
+
+    /**
+     * Run the points of each matching series within the range through its own
+     * sliding window of {@code window} points, and return the statistics at
+     * evenly spaced points, at most {@code maxPoints} of them plus the last
+     * per series. The window fills from the start of the range.
+     */
+    public List<MovingWindowSeries> movingWindow(String category, String label, LocalDateTime startTime,
+                                                 LocalDateTime endTime, int window, int maxPoints) {
+        long from = Timestamps.toEpochMillis(startTime);
+        long to = Timestamps.toEpochMillis(endTime);
+        if (from > to) {
+            return List.of();
+        }
+
+        List<MovingWindowSeries> result = new ArrayList<>();
+        for (SeriesKey key : select(category, label)) {
+            ColumnarSeries columns = series.get(key);
+            int total = columns.count(from, to);
+            if (total == 0) {
+                continue;
+            }
+            long stride = Math.max(1, (total + maxPoints - 1) / maxPoints);
+            SlidingWindow sliding = new SlidingWindow(window);
+            List<WindowSample> samples = new ArrayList<>((int) Math.min(total, maxPoints + 1L));
+            long[] seen = {0};
+            scanPaged(columns, from, to, (timestamp, value) -> {
+                sliding.add(value);
+                long index = seen[0]++;
+                if (index % stride == 0 || index == total - 1) {
+                    samples.add(new WindowSample(timestamp, value, sliding.mean(), sliding.ema(),
+                            sliding.stdDev(), sliding.min(), sliding.max()));
+                }
+            });
+            result.add(new MovingWindowSeries(key.category(), key.label(), window, samples));
+        }
+        return result;
+    }
+
+    /**
+     * Bin the points of the matching series within the range into the grid,
+     * one scan per series; the grid is order-independent, so no merge is needed
+     */
+    public ScatterGrid bin(String category, String label, LocalDateTime startTime, LocalDateTime endTime,
+                           BinGrid.Layout layout, int columns, int rows, double minValue, double maxValue) {
+        long from = Timestamps.toEpochMillis(startTime);
+        long to = Timestamps.toEpochMillis(endTime);
+
+        BinGrid grid = new BinGrid(layout, from, to, columns, rows, minValue, maxValue);
+        for (SeriesKey key : select(category, label)) {
+            series.get(key).scan(from, to, grid);
+        }
+        return grid.finish();
+    }
+
+    private List<SeriesKey> select(String category, String label) {
+        if (label != null) {
+            SeriesKey key = new SeriesKey(category, label);
+            return series.containsKey(key) ? List.of(key) : List.of();
+        }
+        return seriesKeys(category);
+    }
+
+    /**
+     * Visit the points of one series within the range a cursor page at a
+     * time, so the series lock is not held across the visitor's work
+     */
+    private static void scanPaged(ColumnarSeries columns, long from, long to, PointVisitor visitor) {
+        for (SeriesCursor cursor = new SeriesCursor(columns, from, to); cursor.hasNext(); cursor.advance()) {
+            visitor.accept(cursor.timestamp(), cursor.value());
+        }
+    }
+
+    private static long[] trim(long[] array, int length) {
+        return length == array.length ? array : Arrays.copyOf(array, length);
+    }
+
+    private static double[] trim(double[] array, int length) {
+        return length == array.length ? array : Arrays.copyOf(array, length);
+    }
+
+    /**
+     * Time-range response for one series: parallel arrays of epoch-millis
+     * timestamps and values
+     */
+    public record SeriesData(String category, String label, String unit, long[] timestamps, double[] values) {
+    }
+
+    /**
+     * Downsampled points of one series
+     */
+    public record DownsampledSeries(String category, String label, String unit, List<SeriesSample> samples) {
+    }
+
+    /**
+     * Sliding-window statistics of one series
+     */
+    public record MovingWindowSeries(String category, String label, int window, List<WindowSample> samples) {
+    }
+}
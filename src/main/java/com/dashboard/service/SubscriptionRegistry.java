@@ -0,0 +1,94 @@
+package com.dashboard.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live STOMP subscriptions per broker destination
+ *
+ * Fed from the inbound channel with the final destination of every
+ * SUBSCRIBE (after per-subscription rewrites), UNSUBSCRIBE and DISCONNECT,
+ * so publishers can skip destinations nobody is listening to. Pattern
+ * subscriptions such as /topic/datapoints/* are matched the way the simple
+ * broker matches them, with an {@link AntPathMatcher}.
+ */
+@Component
+public class SubscriptionRegistry {
+
+    // sessionId -> (subscriptionId -> destination)
+    private final Map<String, Map<String, String>> sessions = new ConcurrentHashMap<>();
+
+    private final Map<String, Integer> subscriberCounts = new ConcurrentHashMap<>();
+
+    // The subset of subscriberCounts whose destinations are patterns
+    private final Map<String, Integer> patternCounts = new ConcurrentHashMap<>();
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    public void subscribe(String sessionId, String subscriptionId, String destination) {
+        if (sessionId == null || subscriptionId == null || destination == null) {
+            return;
+        }
+        String previous = sessions.computeIfAbsent(sessionId, key -> new ConcurrentHashMap<>())
+                                  .put(subscriptionId, destination);
+        if (previous != null) {
+            decrement(previous);
+        }
+        subscriberCounts.merge(destination, 1, Integer::sum);
+        if (pathMatcher.isPattern(destination)) {
+            patternCounts.merge(destination, 1, Integer::sum);
+        }
+    }
+
+    public void unsubscribe(String sessionId, String subscriptionId) {
+        if (sessionId == null || subscriptionId == null) {
+            return;
+        }
+        Map<String, String> subscriptions = sessions.get(sessionId);
+        if (subscriptions == null) {
+            return;
+        }
+        String destination = subscriptions.remove(subscriptionId);
+        if (destination != null) {
+            decrement(destination);
+        }
+    }
+
+    public void disconnect(String sessionId) {
+        if (sessionId == null) {
+            return;
+        }
+        Map<String, String> subscriptions = sessions.remove(sessionId);
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::decrement);
+        }
+    }
+
+    public boolean hasSubscribers(String destination) {
+        return getSubscriberCount(destination) > 0;
+    }
+
+    /**
+     * Subscriptions to the destination itself plus those whose pattern matches it
+     */
+    public int getSubscriberCount(String destination) {
+        int count = subscriberCounts.getOrDefault(destination, 0);
+        if (!patternCounts.isEmpty() && !pathMatcher.isPattern(destination)) {
+            for (Map.Entry<String, Integer> pattern : patternCounts.entrySet()) {
+                if (pathMatcher.match(pattern.getKey(), destination)) {
+                    count += pattern.getValue();
+                }
+            }
+        }
+        return count;
+    }
+
+    private void decrement(String destination) {
+        subscriberCounts.computeIfPresent(destination, (key, count) -> count > 1 ? count - 1 : null);
+        patternCounts.computeIfPresent(destination, (key, count) -> count > 1 ? count - 1 : null);
+    }
+}
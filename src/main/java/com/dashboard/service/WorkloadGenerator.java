@@ -0,0 +1,347 @@
+package com.dashboard.service;
+
+import com.dashboard.model.DataPoint;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Synthetic workload for load testing the ingest path
+ *
+ * Producer threads publish generated points into the {@link IngestPipeline}
+ * ring at a target rate, shaped by a constant, burst or diurnal profile.
+ * Load is offered open-loop: a point the ring has no room for is counted as
+ * rejected, not retried, so the counters show where the ingest path
+ * saturates. Each producer owns a share of the series and its own random
+ * generator derived from the seed, so a seed reproduces the same series and
+ * value sequences. The rate and profile can be retuned while running; a
+ * change of series, producers or seed restarts the producers.
+ */
+@Service
+public class WorkloadGenerator {
+
+    // Granularity of the pacing: each step publishes about this much of a second's points
+    private static final int STEPS_PER_SECOND = 100;
+    private static final int MAX_STEP_POINTS = 1000;
+
+    private static final String[] CATEGORIES = {
+        "Sales", "Website Traffic", "Server Performance", "User Engagement",
+        "Revenue", "Orders", "CPU Usage", "Memory Usage", "Network Traffic"
+    };
+
+    private static final String[] SOURCES = {
+        "Web Analytics", "Sales System", "Monitoring", "CRM", "E-commerce Platform"
+    };
+
+    public enum Profile {
+        /** Constant target rate */
+        CONSTANT,
+        /** burstFactor times the rate for burstLengthMs out of every burstEveryMs */
+        BURST,
+        /** Rate swings sinusoidally by diurnalAmplitude over diurnalPeriodMs */
+        DIURNAL;
+
+        public static Profile parse(String name) {
+            try {
+                return valueOf(name.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown workload profile: " + name);
+            }
+        }
+    }
+
+    public record Settings(double pointsPerSecond, int series, int producers, Profile profile,
+                           double burstFactor, long burstEveryMs, long burstLengthMs,
+                           long diurnalPeriodMs, double diurnalAmplitude, long seed) {
+
+        public Settings {
+            if (pointsPerSecond < 0 || series < 1 || producers < 1 || producers > series
+                    || burstFactor < 0 || burstEveryMs < 1 || burstLengthMs < 0
+                    || diurnalPeriodMs < 1 || diurnalAmplitude < 0 || diurnalAmplitude > 1) {
+                throw new IllegalArgumentException("Invalid workload settings");
+            }
+        }
+
+        /**
+         * Rate multiplier of the profile, ms after the start
+         */
+        double multiplier(long elapsedMs) {
+            return switch (profile) {
+                case CONSTANT -> 1;
+                case BURST -> elapsedMs % burstEveryMs < burstLengthMs ? burstFactor : 1;
+                case DIURNAL -> 1 + diurnalAmplitude * Math.sin(2 * Math.PI * elapsedMs / diurnalPeriodMs);
+            };
+        }
+
+        /**
+         * These settings with every non-null argument replacing its field
+         */
+        public Settings with(Double pointsPerSecond, Integer series, Integer producers, String profile,
+                             Double burstFactor, Long burstEveryMs, Long burstLengthMs,
+                             Long diurnalPeriodMs, Double diurnalAmplitude, Long seed) {
+            return new Settings(
+                    pointsPerSecond != null ? pointsPerSecond : this.pointsPerSecond,
+                    series != null ? series : this.series,
+                    producers != null ? producers : this.producers,
+                    profile != null ? Profile.parse(profile) : this.profile,
+                    burstFactor != null ? burstFactor : this.burstFactor,
+                    burstEveryMs != null ? burstEveryMs : this.burstEveryMs,
+                    burstLengthMs != null ? burstLengthMs : this.burstLengthMs,
+                    diurnalPeriodMs != null ? diurnalPeriodMs : this.diurnalPeriodMs,
+                    diurnalAmplitude != null ? diurnalAmplitude : this.diurnalAmplitude,
+                    seed != null ? seed : this.seed);
+        }
+
+        boolean sameProducers(Settings other) {
+            return series == other.series && producers == other.producers && seed == other.seed;
+        }
+    }
+
+    public record Status(boolean running, Settings settings, LocalDateTime startedAt,
+                         long generated, long rejected, double targetRate) {
+    }
+
+    @Autowired
+    private IngestPipeline ingestPipeline;
+
+    @Value("${app.workload.points-per-second:1000}")
+    private double defaultPointsPerSecond;
+
+    @Value("${app.workload.series:100}")
+    private int defaultSeries;
+
+    @Value("${app.workload.producers:2}")
+    private int defaultProducers;
+
+    @Value("${app.workload.profile:constant}")
+    private String defaultProfile;
+
+    @Value("${app.workload.burst-factor:5}")
+    private double defaultBurstFactor;
+
+    @Value("${app.workload.burst-every-ms:60000}")
+    private long defaultBurstEveryMs;
+
+    @Value("${app.workload.burst-length-ms:5000}")
+    private long defaultBurstLengthMs;
+
+    @Value("${app.workload.diurnal-period-ms:86400000}")
+    private long defaultDiurnalPeriodMs;
+
+    @Value("${app.workload.diurnal-amplitude:0.5}")
+    private double defaultDiurnalAmplitude;
+
+    @Value("${app.workload.seed:42}")
+    private long defaultSeed;
+
+    private final LongAdder generated = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final MeterRegistry meterRegistry;
+    private final Counter generatedCounter;
+    private final Counter rejectedCounter;
+
+    private volatile Settings settings;
+    private volatile LocalDateTime startedAt;
+    private volatile long startedNanos;
+    private final List<Thread> producers = new ArrayList<>();
+
+    public WorkloadGenerator(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.generatedCounter = Counter.builder("dashboard.workload.points")
+                .tag("result", "published")
+                .description("Synthetic points offered to the ingest path")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("dashboard.workload.points")
+                .tag("result", "rejected")
+                .description("Synthetic points offered to the ingest path")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void registerGauges() {
+        Gauge.builder("dashboard.workload.target.rate", this, WorkloadGenerator::getTargetRate)
+                .description("Current target rate of the synthetic workload, points per second")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Settings of the last start or retune, or those from app.workload.*
+     * before the first; requests override them field by field
+     */
+    public Settings getSettings() {
+        Settings current = settings;
+        if (current != null) {
+            return current;
+        }
+        return new Settings(defaultPointsPerSecond, defaultSeries, defaultProducers, Profile.parse(defaultProfile),
+                defaultBurstFactor, defaultBurstEveryMs, defaultBurstLengthMs,
+                defaultDiurnalPeriodMs, defaultDiurnalAmplitude, defaultSeed);
+    }
+
+    /**
+     * Start producing with the given settings, restarting if already running
+     */
+    public synchronized Status start(Settings newSettings) {
+        stopProducers();
+        generated.reset();
+        rejected.reset();
+        settings = newSettings;
+        startedAt = LocalDateTime.now();
+        startedNanos = System.nanoTime();
+        for (int index = 0; index < newSettings.producers(); index++) {
+            Producer producer = new Producer(newSettings, index);
+            Thread thread = new Thread(producer, "workload-" + index);
+            thread.setDaemon(true);
+            producers.add(thread);
+            thread.start();
+        }
+        return getStatus();
+    }
+
+    /**
+     * Apply new settings to the running workload. Rate and profile changes
+     * take effect on the next pacing step; other changes restart it. When
+     * stopped, the settings are kept for the next start.
+     */
+    public synchronized Status retune(Settings newSettings) {
+        if (!producers.isEmpty() && !settings.sameProducers(newSettings)) {
+            return start(newSettings);
+        }
+        settings = newSettings;
+        return getStatus();
+    }
+
+    public synchronized Status stop() {
+        stopProducers();
+        return getStatus();
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        stopProducers();
+    }
+
+    public Status getStatus() {
+        return new Status(isRunning(), settings, startedAt, generated.sum(), rejected.sum(), getTargetRate());
+    }
+
+    public synchronized boolean isRunning() {
+        return !producers.isEmpty();
+    }
+
+    private double getTargetRate() {
+        Settings current = settings;
+        if (current == null || !isRunning()) {
+            return 0;
+        }
+        return current.pointsPerSecond() * current.multiplier(elapsedMs());
+    }
+
+    private long elapsedMs() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+    }
+
+    private void stopProducers() {
+        producers.forEach(Thread::interrupt);
+        for (Thread thread : producers) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        producers.clear();
+    }
+
+    /**
+     * Producer owning every series whose number is congruent to its index,
+     * each a random walk around its own baseline
+     */
+    private final class Producer implements Runnable {
+        private final int index;
+        private final SplittableRandom random;
+        private final String[] categories;
+        private final String[] labels;
+        private final String[] sources;
+        private final double[] values;
+        private final double[] volatility;
+
+        Producer(Settings initial, int index) {
+            this.index = index;
+            this.random = new SplittableRandom(initial.seed() + index * 0x9E3779B97F4A7C15L);
+            int owned = (initial.series() - index + initial.producers() - 1) / initial.producers();
+            this.categories = new String[owned];
+            this.labels = new String[owned];
+            this.sources = new String[owned];
+            this.values = new double[owned];
+            this.volatility = new double[owned];
+            for (int i = 0; i < owned; i++) {
+                int series = index + i * initial.producers();
+                categories[i] = CATEGORIES[series % CATEGORIES.length];
+                sources[i] = SOURCES[series % SOURCES.length];
+                labels[i] = "Load " + series;
+                values[i] = 10 + random.nextDouble() * 990;
+                volatility[i] = values[i] * (0.001 + random.nextDouble() * 0.02);
+            }
+        }
+
+        @Override
+        public void run() {
+            long next = System.nanoTime();
+            while (!Thread.currentThread().isInterrupted()) {
+                Settings current = settings;
+                double rate = current.pointsPerSecond() * current.multiplier(elapsedMs()) / current.producers();
+                if (rate <= 0) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+                    next = System.nanoTime();
+                    continue;
+                }
+
+                int step = (int) Math.max(1, Math.min(MAX_STEP_POINTS, rate / STEPS_PER_SECOND));
+                LocalDateTime timestamp = LocalDateTime.now();
+                int published = 0;
+                for (int i = 0; i < step; i++) {
+                    if (ingestPipeline.publish(nextPoint(timestamp))) {
+                        published++;
+                    }
+                }
+                generated.add(published);
+                rejected.add(step - published);
+                generatedCounter.increment(published);
+                rejectedCounter.increment(step - published);
+
+                next += (long) (step * 1e9 / rate);
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                } else if (wait < -TimeUnit.SECONDS.toNanos(1)) {
+                    // Too far behind to catch up; drop the backlog rather than burst
+                    next = System.nanoTime();
+                }
+            }
+        }
+
+        private DataPoint nextPoint(LocalDateTime timestamp) {
+            int i = random.nextInt(values.length);
+            // Floored at one step above zero: data point values must be positive
+            values[i] = Math.max(volatility[i], values[i] + (random.nextDouble() * 2 - 1) * volatility[i]);
+            DataPoint dataPoint = new DataPoint(categories[i], values[i], labels[i], sources[i],
+                    "Synthetic workload, producer " + index, "units");
+            dataPoint.setTimestamp(timestamp);
+            return dataPoint;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.dashboard.storage;
+
+import com.dashboard.model.DataPoint;
+import com.dashboard.timeseries.Timestamps;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * One entry of the segment log
+ *
+ * PUT carries a full data point, DELETE the id and timestamp of a removed
+ * point, and TRUNCATE a cutoff before which every point was removed. Every
+ * record has a timestamp, which the sparse time index of its segment
+ * covers; for TRUNCATE it is the cutoff.
+ */
+public record LogRecord(Type type, long id, LocalDateTime timestamp, DataPoint dataPoint) {
+
+    public enum Type {
+        PUT,
+        DELETE,
+        TRUNCATE
+    }
+
+    public static LogRecord put(DataPoint dataPoint) {
+        return new LogRecord(Type.PUT, dataPoint.getId(), dataPoint.getTimestamp(), dataPoint);
+    }
+
+    public static LogRecord delete(DataPoint dataPoint) {
+        return new LogRecord(Type.DELETE, dataPoint.getId(), dataPoint.getTimestamp(), null);
+    }
+
+    public static LogRecord truncate(LocalDateTime cutoff) {
+        return new LogRecord(Type.TRUNCATE, 0, cutoff, null);
+    }
+
+    public long timestampMillis() {
+        return Timestamps.toEpochMillis(timestamp);
+    }
+
+    /**
+     * Serialized payload: type, id, timestamp (epoch second and nano, UTC),
+     * then for PUT the value and the string fields, each length-prefixed
+     * UTF-8 with -1 for null
+     */
+    byte[] encode() {
+        byte[][] strings = new byte[6][];
+        int size = 1 + 8 + 8 + 4;
+        if (type == Type.PUT) {
+            strings[0] = utf8(dataPoint.getCategory());
+            strings[1] = utf8(dataPoint.getLabel());
+            strings[2] = utf8(dataPoint.getSource());
+            strings[3] = utf8(dataPoint.getDescription());
+            strings[4] = utf8(dataPoint.getUnit());
+            strings[5] = utf8(dataPoint.getMetadata());
+            size += 8;
+            for (byte[] string : strings) {
+                size += 4 + (string == null ? 0 : string.length);
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put((byte) type.ordinal());
+        buffer.putLong(id);
+        buffer.putLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(timestamp.getNano());
+        if (type == Type.PUT) {
+            buffer.putDouble(dataPoint.getValue());
+            for (byte[] string : strings) {
+                if (string == null) {
+                    buffer.putInt(-1);
+                } else {
+                    buffer.putInt(string.length);
+                    buffer.put(string);
+                }
+            }
+        }
+        return buffer.array();
+    }
+
+    static LogRecord decode(ByteBuffer payload) {
+        Type type = Type.values()[payload.get()];
+        long id = payload.getLong();
+        LocalDateTime timestamp = LocalDateTime.ofEpochSecond(payload.getLong(), payload.getInt(), ZoneOffset.UTC);
+        if (type != Type.PUT) {
+            return new LogRecord(type, id, timestamp, null);
+        }
+
+        double value = payload.getDouble();
+        DataPoint dataPoint = new DataPoint(string(payload), value, string(payload), string(payload),
+                string(payload), string(payload));
+        dataPoint.setMetadata(string(payload));
+        dataPoint.setId(id);
+        dataPoint.setTimestamp(timestamp);
+        return new LogRecord(type, id, timestamp, dataPoint);
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(ByteBuffer payload) {
+        int length = payload.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,309 @@
+package com.dashboard.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * One memory-mapped file of the segment log
+ *
+ * Layout: an 8-byte header (magic, version), then records of
+ * [payload length][CRC32C of payload][payload], then zeros up to the
+ * pre-allocated capacity. The first zero length, or a record whose
+ * checksum does not match, ends the segment; that is how a torn write at
+ * the tail is detected after a crash.
+ *
+ * Every {@code indexInterval} records start a block, and the sparse time
+ * index keeps each block's offset and timestamp range so scans skip blocks
+ * outside the requested range. When a segment is sealed the index is
+ * written next to it, so reopening a sealed segment maps it without reading
+ * its records.
+ */
+final class Segment {
+
+    private static final int MAGIC = 0x4450534C; // "DPSL"
+    private static final int VERSION = 1;
+    static final int HEADER_BYTES = 8;
+    static final int RECORD_HEADER_BYTES = 8;
+
+    private final long number;
+    private final Path path;
+    private final Path indexPath;
+    private final MappedByteBuffer buffer;
+    private final int indexInterval;
+
+    private final List<Block> blocks = new ArrayList<>();
+    private int position;
+    private long recordCount;
+    private boolean sealed;
+
+    private Segment(long number, Path path, MappedByteBuffer buffer, int indexInterval) {
+        this.number = number;
+        this.path = path;
+        this.indexPath = indexPathOf(path);
+        this.buffer = buffer;
+        this.indexInterval = indexInterval;
+    }
+
+    /**
+     * Create and map a new, empty segment of the given capacity
+     */
+    static Segment create(Path directory, long number, int capacity, int indexInterval) throws IOException {
+        Path path = directory.resolve(fileName(number));
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        }
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        Segment segment = new Segment(number, path, buffer, indexInterval);
+        segment.position = HEADER_BYTES;
+        return segment;
+    }
+
+    /**
+     * Map an existing segment. A sealed segment with a valid index is opened
+     * without a scan; otherwise the records are scanned and checksummed to
+     * find the end and rebuild the index, and a torn tail record is zeroed.
+     */
+    static Segment open(Path path, boolean sealed, int indexInterval) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = sealed
+                ? FileChannel.open(path, StandardOpenOption.READ)
+                : FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(sealed ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE,
+                    0, channel.size());
+        }
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a segment file: " + path);
+        }
+
+        Segment segment = new Segment(numberOf(path), path, buffer, indexInterval);
+        segment.sealed = sealed;
+        if (!sealed || !segment.loadIndex()) {
+            segment.recover();
+            if (sealed) {
+                segment.writeIndex();
+            }
+        }
+        return segment;
+    }
+
+    /**
+     * Append a record. Returns false, writing nothing, if it does not fit.
+     */
+    boolean append(byte[] payload, long timestampMillis) {
+        if (sealed) {
+            throw new IllegalStateException("Segment " + number + " is sealed");
+        }
+        int size = RECORD_HEADER_BYTES + payload.length;
+        if (position + size > buffer.capacity()) {
+            return false;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        // Payload and checksum first, length last: a record is only visible once complete
+        buffer.put(position + RECORD_HEADER_BYTES, payload);
+        buffer.putInt(position + 4, (int) crc.getValue());
+        buffer.putInt(position, payload.length);
+        indexRecord(position, timestampMillis);
+        position += size;
+        return true;
+    }
+
+    /**
+     * Flush written records to the file, then freeze the segment and write its index
+     */
+    void seal() throws IOException {
+        if (sealed) {
+            return;
+        }
+        force();
+        writeIndex();
+        sealed = true;
+    }
+
+    void force() {
+        if (!sealed) {
+            buffer.force();
+        }
+    }
+
+    /**
+     * Visit the payload of every record in a block whose time range reaches
+     * fromMillis, in log order. Records in those blocks may still be older.
+     */
+    void scan(long fromMillis, Consumer<ByteBuffer> visitor) {
+        ByteBuffer view = buffer.duplicate();
+        for (Block block : blocks) {
+            if (block.maxTimestamp < fromMillis) {
+                continue;
+            }
+            int offset = block.offset;
+            for (int i = 0; i < block.count; i++) {
+                int length = view.getInt(offset);
+                visitor.accept(view.slice(offset + RECORD_HEADER_BYTES, length));
+                offset += RECORD_HEADER_BYTES + length;
+            }
+        }
+    }
+
+    void delete() throws IOException {
+        Files.deleteIfExists(indexPath);
+        Files.deleteIfExists(path);
+    }
+
+    long number() {
+        return number;
+    }
+
+    long recordCount() {
+        return recordCount;
+    }
+
+    boolean isEmpty() {
+        return recordCount == 0;
+    }
+
+    /**
+     * Newest record timestamp in the segment, or Long.MIN_VALUE if empty
+     */
+    long maxTimestamp() {
+        long max = Long.MIN_VALUE;
+        for (Block block : blocks) {
+            max = Math.max(max, block.maxTimestamp);
+        }
+        return max;
+    }
+
+    static String fileName(long number) {
+        return String.format("%020d.seg", number);
+    }
+
+    static long numberOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - ".seg".length()));
+    }
+
+    private static Path indexPathOf(Path path) {
+        String name = path.getFileName().toString();
+        return path.resolveSibling(name.substring(0, name.length() - ".seg".length()) + ".idx");
+    }
+
+    private void indexRecord(int offset, long timestampMillis) {
+        Block block = blocks.isEmpty() ? null : blocks.get(blocks.size() - 1);
+        if (block == null || block.count == indexInterval) {
+            block = new Block(offset, timestampMillis, timestampMillis);
+            blocks.add(block);
+        }
+        block.count++;
+        block.minTimestamp = Math.min(block.minTimestamp, timestampMillis);
+        block.maxTimestamp = Math.max(block.maxTimestamp, timestampMillis);
+        recordCount++;
+    }
+
+    /**
+     * Walk the records from the header, stopping at the first empty or
+     * corrupt one
+     */
+    private void recover() {
+        int offset = HEADER_BYTES;
+        CRC32C crc = new CRC32C();
+        while (offset + RECORD_HEADER_BYTES <= buffer.capacity()) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + RECORD_HEADER_BYTES + length > buffer.capacity()) {
+                break;
+            }
+            ByteBuffer payload = buffer.slice(offset + RECORD_HEADER_BYTES, length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != buffer.getInt(offset + 4)) {
+                break;
+            }
+            indexRecord(offset, LogRecord.decode(payload).timestampMillis());
+            offset += RECORD_HEADER_BYTES + length;
+        }
+        position = offset;
+
+        // Clear a torn record so later appends are not followed by its remains
+        if (!sealed && offset + 4 <= buffer.capacity()) {
+            long torn = Math.max(0, buffer.getInt(offset));
+            int end = (int) Math.min(buffer.capacity(), offset + RECORD_HEADER_BYTES + torn);
+            for (int i = offset; i < end; i++) {
+                buffer.put(i, (byte) 0);
+            }
+        }
+    }
+
+    private void writeIndex() throws IOException {
+        ByteBuffer index = ByteBuffer.allocate(4 + 4 + 8 + 4 + blocks.size() * 24 + 4);
+        index.putInt(MAGIC);
+        index.putInt(position);
+        index.putLong(recordCount);
+        index.putInt(blocks.size());
+        for (Block block : blocks) {
+            index.putInt(block.offset);
+            index.putInt(block.count);
+            index.putLong(block.minTimestamp);
+            index.putLong(block.maxTimestamp);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(index.array(), 0, index.position());
+        index.putInt((int) crc.getValue());
+
+        Path temporary = indexPath.resolveSibling(indexPath.getFileName() + ".tmp");
+        Files.write(temporary, index.array());
+        Files.move(temporary, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private boolean loadIndex() throws IOException {
+        if (!Files.exists(indexPath)) {
+            return false;
+        }
+        ByteBuffer index = ByteBuffer.wrap(Files.readAllBytes(indexPath));
+        if (index.capacity() < 24 || index.getInt(0) != MAGIC) {
+            return false;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(index.array(), 0, index.capacity() - 4);
+        if ((int) crc.getValue() != index.getInt(index.capacity() - 4)) {
+            return false;
+        }
+
+        index.position(4);
+        position = index.getInt();
+        recordCount = index.getLong();
+        int count = index.getInt();
+        for (int i = 0; i < count; i++) {
+            Block block = new Block(index.getInt(), Long.MAX_VALUE, Long.MIN_VALUE);
+            block.count = index.getInt();
+            block.minTimestamp = index.getLong();
+            block.maxTimestamp = index.getLong();
+            blocks.add(block);
+        }
+        return true;
+    }
+
+    private static final class Block {
+        private final int offset;
+        private int count;
+        private long minTimestamp;
+        private long maxTimestamp;
+
+        Block(int offset, long minTimestamp, long maxTimestamp) {
+            this.offset = offset;
+            this.minTimestamp = minTimestamp;
+            this.maxTimestamp = maxTimestamp;
+        }
+    }
+}
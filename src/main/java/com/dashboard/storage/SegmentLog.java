@@ -0,0 +1,170 @@
+package com.dashboard.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of data point changes in fixed-size, memory-mapped segments
+ *
+ * Records are appended to the active segment; when it is full it is sealed
+ * (flushed and indexed) and a new one is created. Segments are numbered in
+ * append order, so replaying them in number order reproduces the history.
+ * Opening the log maps the sealed segments as they are and only scans the
+ * active one, to find its end after a crash. Appends reach the page cache
+ * immediately and the file on {@link #force()} or when a segment is sealed.
+ * Methods are synchronized; one instance is shared by all writers.
+ */
+public class SegmentLog implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SegmentLog.class);
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int indexInterval;
+
+    private final List<Segment> segments = new ArrayList<>();
+    private Segment active;
+
+    public SegmentLog(Path directory, int segmentBytes, int indexInterval) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.indexInterval = indexInterval;
+    }
+
+    /**
+     * Map the existing segments, or start an empty log
+     */
+    public synchronized void open() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> paths;
+        try (Stream<Path> files = Files.list(directory)) {
+            paths = files.filter(path -> path.getFileName().toString().endsWith(".seg"))
+                    .sorted()
+                    .toList();
+        }
+        for (int i = 0; i < paths.size(); i++) {
+            segments.add(Segment.open(paths.get(i), i < paths.size() - 1, indexInterval));
+        }
+        if (segments.isEmpty()) {
+            roll();
+        } else {
+            active = segments.get(segments.size() - 1);
+        }
+    }
+
+    public synchronized void append(LogRecord record) {
+        byte[] payload = record.encode();
+        if (Segment.HEADER_BYTES + Segment.RECORD_HEADER_BYTES + payload.length > segmentBytes) {
+            throw new IllegalArgumentException("Record of " + payload.length + " bytes exceeds the segment size");
+        }
+        try {
+            if (!active.append(payload, record.timestampMillis())) {
+                roll();
+                active.append(payload, record.timestampMillis());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Visit the records in log order, skipping index blocks that hold only
+     * records older than fromMillis. Records of visited blocks are not
+     * filtered, so the visitor may still see older ones.
+     */
+    public synchronized void replay(long fromMillis, Consumer<LogRecord> visitor) {
+        for (Segment segment : segments) {
+            segment.scan(fromMillis, payload -> visitor.accept(LogRecord.decode(payload)));
+        }
+    }
+
+    /**
+     * Delete every sealed segment holding only records older than the cutoff,
+     * whole files at a time
+     *
+     * @return the number of segments deleted
+     */
+    public synchronized int dropSegmentsBefore(long cutoffMillis) {
+        int dropped = 0;
+        for (Segment segment : new ArrayList<>(segments)) {
+            if (segment != active && segment.maxTimestamp() < cutoffMillis) {
+                delete(segment);
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * Rewrite the log to hold only the given records, in iteration order.
+     * The new segments are written and flushed before the old ones are
+     * deleted, so a crash in between leaves the old history followed by a
+     * copy of its live records, which replays to the same state.
+     */
+    public synchronized void compact(Collection<LogRecord> live) throws IOException {
+        List<Segment> previous = new ArrayList<>(segments);
+        roll();
+        for (LogRecord record : live) {
+            append(record);
+        }
+        active.force();
+        for (Segment segment : previous) {
+            delete(segment);
+        }
+    }
+
+    /**
+     * Flush the active segment to the file
+     */
+    public synchronized void force() {
+        if (active != null) {
+            active.force();
+        }
+    }
+
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    public synchronized long getRecordCount() {
+        long count = 0;
+        for (Segment segment : segments) {
+            count += segment.recordCount();
+        }
+        return count;
+    }
+
+    @Override
+    public synchronized void close() {
+        force();
+    }
+
+    private void roll() throws IOException {
+        long number = 1;
+        if (active != null) {
+            active.seal();
+            number = active.number() + 1;
+        }
+        active = Segment.create(directory, number, segmentBytes, indexInterval);
+        segments.add(active);
+    }
+
+    private void delete(Segment segment) {
+        try {
+            segment.delete();
+            segments.remove(segment);
+        } catch (IOException e) {
+            log.warn("Error deleting log segment {}", segment.number(), e);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.dashboard.timeseries;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed grid of cells accumulating the count, mean, min and max of the
+ * points that fall into them, filled in a single pass
+ *
+ * The layout decides what the axes are: hour of day by value, hour of day
+ * by day of week, or time by value. Time axes are in UTC, like the stored
+ * timestamps. Values outside the value axis bounds are counted in the first
+ * or last row. Memory and output are bounded by the grid, whatever the
+ * number of points.
+ */
+public class BinGrid implements PointVisitor {
+
+    private static final long HOUR_MILLIS = 3_600_000L;
+    private static final long DAY_MILLIS = 24 * HOUR_MILLIS;
+
+    public enum Layout {
+        /** Hour of day (0-23) by value */
+        HOUR_VALUE("hour", "value"),
+        /** Hour of day (0-23) by ISO day of week (1 = Monday) */
+        HOUR_WEEKDAY("hour", "dayOfWeek"),
+        /** Time (epoch millis) by value */
+        TIME_VALUE("timestamp", "value");
+
+        private final String xAxis;
+        private final String yAxis;
+
+        Layout(String xAxis, String yAxis) {
+            this.xAxis = xAxis;
+            this.yAxis = yAxis;
+        }
+
+        public boolean hasValueAxis() {
+            return this != HOUR_WEEKDAY;
+        }
+
+        /**
+         * Layout for the given name ("hour-value", "hour-weekday" or "time-value")
+         */
+        public static Layout of(String name) {
+            for (Layout layout : values()) {
+                if (layout.name().replace('_', '-').equalsIgnoreCase(name)) {
+                    return layout;
+                }
+            }
+            throw new IllegalArgumentException("Unknown scatter layout: " + name);
+        }
+    }
+
+    private final Layout layout;
+    private final int columns;
+    private final int rows;
+    private final double xMin;
+    private final double xStep;
+    private final double yMin;
+    private final double yStep;
+
+    private final long[] counts;
+    private final double[] sums;
+    private final double[] minima;
+    private final double[] maxima;
+    private long total;
+
+    /**
+     * @param from     start of the time range, epoch millis (time axis only)
+     * @param to       end of the time range, epoch millis (time axis only)
+     * @param columns  time buckets (time axis only; hour of day has 24)
+     * @param rows     value buckets (value axis only; day of week has 7)
+     * @param minValue lower bound of the value axis
+     * @param maxValue upper bound of the value axis
+     */
+    public BinGrid(Layout layout, long from, long to, int columns, int rows, double minValue, double maxValue) {
+        this.layout = layout;
+        if (layout == Layout.TIME_VALUE) {
+            this.columns = columns;
+            this.xMin = from;
+            this.xStep = Math.max(1.0, (double) (to - from) / columns);
+        } else {
+            this.columns = 24;
+            this.xMin = 0;
+            this.xStep = 1;
+        }
+        if (layout.hasValueAxis()) {
+            this.rows = rows;
+            this.yMin = minValue;
+            this.yStep = maxValue > minValue ? (maxValue - minValue) / rows : 1.0 / rows;
+        } else {
+            this.rows = 7;
+            this.yMin = 1;
+            this.yStep = 1;
+        }
+
+        int cells = this.columns * this.rows;
+        this.counts = new long[cells];
+        this.sums = new double[cells];
+        this.minima = new double[cells];
+        this.maxima = new double[cells];
+    }
+
+    @Override
+    public void accept(long timestamp, double value) {
+        int column;
+        int row;
+        switch (layout) {
+            case HOUR_VALUE -> {
+                column = hourOfDay(timestamp);
+                row = valueRow(value);
+            }
+            case HOUR_WEEKDAY -> {
+                column = hourOfDay(timestamp);
+                row = dayOfWeek(timestamp) - 1;
+            }
+            default -> {
+                column = clamp((int) ((timestamp - xMin) / xStep), columns);
+                row = valueRow(value);
+            }
+        }
+
+        int cell = row * columns + column;
+        if (counts[cell] == 0) {
+            minima[cell] = value;
+            maxima[cell] = value;
+        } else {
+            minima[cell] = Math.min(minima[cell], value);
+            maxima[cell] = Math.max(maxima[cell], value);
+        }
+        counts[cell]++;
+        sums[cell] += value;
+        total++;
+    }
+
+    /**
+     * The non-empty cells, by row then column
+     */
+    public ScatterGrid finish() {
+        List<ScatterGrid.Cell> cells = new ArrayList<>();
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                int cell = row * columns + column;
+                if (counts[cell] > 0) {
+                    cells.add(new ScatterGrid.Cell(column, row, xMin + column * xStep, yMin + row * yStep,
+                            counts[cell], sums[cell] / counts[cell], minima[cell], maxima[cell]));
+                }
+            }
+        }
+        return new ScatterGrid(layout.xAxis, layout.yAxis, columns, rows,
+                xMin, xMin + columns * xStep, yMin, yMin + rows * yStep, total, cells);
+    }
+
+    private int valueRow(double value) {
+        return clamp((int) Math.floor((value - yMin) / yStep), rows);
+    }
+
+    private static int hourOfDay(long timestamp) {
+        return (int) (Math.floorMod(timestamp, DAY_MILLIS) / HOUR_MILLIS);
+    }
+
+    /**
+     * ISO day of week, 1 (Monday) to 7; the epoch fell on a Thursday
+     */
+    private static int dayOfWeek(long timestamp) {
+        return Math.floorMod(Math.floorDiv(timestamp, DAY_MILLIS) + 3, 7) + 1;
+    }
+
+    private static int clamp(int index, int size) {
+        return Math.max(0, Math.min(size - 1, index));
+    }
+}
@@ -0,0 +1,381 @@
+package com.dashboard.timeseries;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Time-ordered columnar storage for one series
+ * 
+ * Points live in fixed-size chunks of primitive columns (epoch-millis
+ * timestamps, values and ids), about 24 bytes per point. Chunks are ordered
+ * by time, so a range scan binary-searches the chunk list and then the first
+ * chunk, and reads the rest sequentially.
+ */
+public class ColumnarSeries {
+
+    private final int chunkSize;
+    private final List<Chunk> chunks = new ArrayList<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile String unit;
+    private int size;
+
+    public ColumnarSeries(int chunkSize) {
+        if (chunkSize < 2) {
+            throw new IllegalArgumentException("Chunk size must be at least 2: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Insert a point. In-order points append to the tail chunk; late points are
+     * inserted into the chunk covering their timestamp, splitting it when full.
+     */
+    public void add(long timestamp, double value, long id) {
+        lock.writeLock().lock();
+        try {
+            int chunkIndex = chunkForInsert(timestamp);
+            Chunk chunk = chunks.get(chunkIndex);
+            if (chunk.size == chunkSize) {
+                if (chunkIndex == chunks.size() - 1 && timestamp >= chunk.lastTimestamp()) {
+                    chunk = new Chunk(chunkSize);
+                    chunks.add(chunk);
+                } else {
+                    Chunk upper = chunk.splitUpperHalf(chunkSize);
+                    chunks.add(chunkIndex + 1, upper);
+                    if (timestamp >= upper.timestamps[0]) {
+                        chunk = upper;
+                    }
+                }
+            }
+            chunk.insert(timestamp, value, id);
+            size++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the point with the given id and timestamp, if present
+     */
+    public boolean remove(long timestamp, long id) {
+        lock.writeLock().lock();
+        try {
+            for (int c = firstChunkAtOrAfter(timestamp); c < chunks.size(); c++) {
+                Chunk chunk = chunks.get(c);
+                for (int i = chunk.lowerBound(timestamp); i < chunk.size && chunk.timestamps[i] == timestamp; i++) {
+                    if (chunk.ids[i] == id) {
+                        chunk.removeAt(i);
+                        if (chunk.size == 0 && chunks.size() > 1) {
+                            chunks.remove(c);
+                        }
+                        size--;
+                        return true;
+                    }
+                }
+                if (chunk.size > 0 && chunk.lastTimestamp() > timestamp) {
+                    break;
+                }
+            }
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drop every point older than the cutoff. Whole chunks are released
+     * without copying; only the boundary chunk is compacted.
+     */
+    public void removeOlderThan(long cutoff) {
+        lock.writeLock().lock();
+        try {
+            int whole = 0;
+            while (whole < chunks.size() && chunks.get(whole).size > 0
+                    && chunks.get(whole).lastTimestamp() < cutoff) {
+                size -= chunks.get(whole).size;
+                whole++;
+            }
+            chunks.subList(0, whole).clear();
+            if (!chunks.isEmpty()) {
+                size -= chunks.get(0).trimBefore(cutoff);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Visit points with {@code from <= timestamp <= to} in ascending time order
+     */
+    public void scan(long from, long to, PointVisitor visitor) {
+        lock.readLock().lock();
+        try {
+            int c = firstChunkAtOrAfter(from);
+            int i = c < chunks.size() ? chunks.get(c).lowerBound(from) : 0;
+            for (; c < chunks.size(); c++, i = 0) {
+                Chunk chunk = chunks.get(c);
+                for (; i < chunk.size; i++) {
+                    if (chunk.timestamps[i] > to) {
+                        return;
+                    }
+                    visitor.accept(chunk.timestamps[i], chunk.values[i]);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Visit the newest {@code limit} points in ascending time order, walking
+     * back from the tail chunk rather than scanning the whole series
+     */
+    public void scanLast(int limit, PointVisitor visitor) {
+        lock.readLock().lock();
+        try {
+            int c = chunks.size();
+            int i = 0;
+            int remaining = limit;
+            while (c > 0 && remaining > 0) {
+                Chunk chunk = chunks.get(--c);
+                int take = Math.min(remaining, chunk.size);
+                i = chunk.size - take;
+                remaining -= take;
+            }
+            for (; c < chunks.size(); c++, i = 0) {
+                Chunk chunk = chunks.get(c);
+                for (; i < chunk.size; i++) {
+                    visitor.accept(chunk.timestamps[i], chunk.values[i]);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copy up to {@code timestamps.length} points with {@code from <= timestamp <= to}
+     * into the buffers, skipping the first {@code skip} of them. Returns the
+     * number of points copied. Lets a {@link SeriesCursor} page through a range
+     * without holding the lock between pages.
+     */
+    public int read(long from, int skip, long to, long[] timestamps, double[] values) {
+        lock.readLock().lock();
+        try {
+            int copied = 0;
+            int skipped = 0;
+            int c = firstChunkAtOrAfter(from);
+            int i = c < chunks.size() ? chunks.get(c).lowerBound(from) : 0;
+            for (; c < chunks.size(); c++, i = 0) {
+                Chunk chunk = chunks.get(c);
+                if (skipped < skip) {
+                    int step = Math.min(skip - skipped, chunk.size - i);
+                    skipped += step;
+                    i += step;
+                }
+                for (; i < chunk.size && copied < timestamps.length; i++) {
+                    if (chunk.timestamps[i] > to) {
+                        return copied;
+                    }
+                    timestamps[copied] = chunk.timestamps[i];
+                    values[copied] = chunk.values[i];
+                    copied++;
+                }
+                if (copied == timestamps.length) {
+                    break;
+                }
+            }
+            return copied;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of points with {@code from <= timestamp <= to}, in O(log n) plus
+     * the number of chunks spanned; 0 for an inverted range
+     */
+    public int count(long from, long to) {
+        if (from > to) {
+            return 0;
+        }
+        lock.readLock().lock();
+        try {
+            int count = 0;
+            for (int c = firstChunkAtOrAfter(from); c < chunks.size(); c++) {
+                Chunk chunk = chunks.get(c);
+                if (chunk.size == 0 || chunk.timestamps[0] > to) {
+                    break;
+                }
+                int start = chunk.lowerBound(from);
+                int end = chunk.lastTimestamp() <= to ? chunk.size : chunk.upperBound(to);
+                count += end - start;
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public void setUnit(String unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * Index of the first chunk whose last timestamp is at or after the given one
+     */
+    private int firstChunkAtOrAfter(long timestamp) {
+        int low = 0;
+        int high = chunks.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            Chunk chunk = chunks.get(mid);
+            if (chunk.size > 0 && chunk.lastTimestamp() < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Index of the chunk a new point belongs in: the first chunk whose last
+     * timestamp is after it, or the tail chunk
+     */
+    private int chunkForInsert(long timestamp) {
+        if (chunks.isEmpty()) {
+            chunks.add(new Chunk(chunkSize));
+            return 0;
+        }
+        int low = 0;
+        int high = chunks.size() - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            Chunk chunk = chunks.get(mid);
+            if (chunk.size > 0 && chunk.lastTimestamp() <= timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static final class Chunk {
+        final long[] timestamps;
+        final double[] values;
+        final long[] ids;
+        int size;
+
+        Chunk(int capacity) {
+            this.timestamps = new long[capacity];
+            this.values = new double[capacity];
+            this.ids = new long[capacity];
+        }
+
+        long lastTimestamp() {
+            return timestamps[size - 1];
+        }
+
+        void insert(long timestamp, double value, long id) {
+            int pos = size == 0 || timestamp >= lastTimestamp() ? size : upperBound(timestamp);
+            int tail = size - pos;
+            if (tail > 0) {
+                System.arraycopy(timestamps, pos, timestamps, pos + 1, tail);
+                System.arraycopy(values, pos, values, pos + 1, tail);
+                System.arraycopy(ids, pos, ids, pos + 1, tail);
+            }
+            timestamps[pos] = timestamp;
+            values[pos] = value;
+            ids[pos] = id;
+            size++;
+        }
+
+        void removeAt(int index) {
+            int tail = size - index - 1;
+            if (tail > 0) {
+                System.arraycopy(timestamps, index + 1, timestamps, index, tail);
+                System.arraycopy(values, index + 1, values, index, tail);
+                System.arraycopy(ids, index + 1, ids, index, tail);
+            }
+            size--;
+        }
+
+        /**
+         * Remove points older than the cutoff; returns how many were removed
+         */
+        int trimBefore(long cutoff) {
+            int drop = lowerBound(cutoff);
+            if (drop > 0) {
+                int keep = size - drop;
+                System.arraycopy(timestamps, drop, timestamps, 0, keep);
+                System.arraycopy(values, drop, values, 0, keep);
+                System.arraycopy(ids, drop, ids, 0, keep);
+                size = keep;
+            }
+            return drop;
+        }
+
+        Chunk splitUpperHalf(int capacity) {
+            Chunk upper = new Chunk(capacity);
+            int half = size / 2;
+            int moved = size - half;
+            System.arraycopy(timestamps, half, upper.timestamps, 0, moved);
+            System.arraycopy(values, half, upper.values, 0, moved);
+            System.arraycopy(ids, half, upper.ids, 0, moved);
+            upper.size = moved;
+            size = half;
+            return upper;
+        }
+
+        /**
+         * First index with timestamp >= the given one
+         */
+        int lowerBound(long timestamp) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (timestamps[mid] < timestamp) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * First index with timestamp > the given one
+         */
+        int upperBound(long timestamp) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (timestamps[mid] <= timestamp) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.dashboard.timeseries;
+
+import java.util.List;
+
+/**
+ * Reduces a time-ordered stream of points to a bounded number of samples in
+ * a single pass
+ */
+public interface Downsampler extends PointVisitor {
+
+    /**
+     * Complete the pass and return the selected samples in time order
+     */
+    List<SeriesSample> finish();
+
+    /**
+     * Downsampler for the given method name ("lttb" or "minmax")
+     */
+    static Downsampler create(String method, int totalPoints, int maxPoints) {
+        if ("minmax".equalsIgnoreCase(method)) {
+            return new MinMaxDownsampler(totalPoints, maxPoints);
+        }
+        if ("lttb".equalsIgnoreCase(method)) {
+            return new LttbDownsampler(totalPoints, maxPoints);
+        }
+        throw new IllegalArgumentException("Unknown downsampling method: " + method);
+    }
+}
@@ -0,0 +1,155 @@
+package com.dashboard.timeseries;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling in one streaming pass
+ * 
+ * The expected point count fixes the bucket boundaries up front. Choosing the
+ * point of a bucket needs the average of the following bucket, so only two
+ * buckets are buffered at a time: memory is O(totalPoints / maxPoints).
+ * The last point seen is always kept, so a count that drifts from the
+ * expected total only skews bucket sizes.
+ */
+public class LttbDownsampler implements Downsampler {
+
+    private final int maxPoints;
+    private final double bucketWidth;
+    private final List<SeriesSample> samples;
+
+    private long seen;
+    private Bucket pending = new Bucket();
+    private Bucket current = new Bucket();
+    private int currentIndex;
+    private long currentEnd;
+    private long selectedTimestamp;
+    private double selectedValue;
+
+    public LttbDownsampler(int totalPoints, int maxPoints) {
+        if (maxPoints < 3) {
+            throw new IllegalArgumentException("maxPoints must be at least 3: " + maxPoints);
+        }
+        this.maxPoints = maxPoints;
+        this.bucketWidth = totalPoints > maxPoints
+                ? (double) (totalPoints - 2) / (maxPoints - 2)
+                : 1.0;
+        this.samples = new ArrayList<>(Math.min(totalPoints, maxPoints));
+        this.currentEnd = (long) Math.floor(bucketWidth);
+    }
+
+    @Override
+    public void accept(long timestamp, double value) {
+        long index = seen++;
+        if (index == 0) {
+            emit(timestamp, value);
+            return;
+        }
+        if (index - 1 >= currentEnd && currentIndex < maxPoints - 3) {
+            currentIndex++;
+            currentEnd = (long) Math.floor((currentIndex + 1) * bucketWidth);
+            if (!pending.isEmpty()) {
+                select(pending, current.averageTimestamp(), current.averageValue());
+            }
+            Bucket recycled = pending;
+            pending = current;
+            current = recycled;
+            current.clear();
+        }
+        current.add(timestamp, value);
+    }
+
+    @Override
+    public List<SeriesSample> finish() {
+        if (current.isEmpty()) {
+            return samples;
+        }
+        // The newest point closes the series and anchors the final selection
+        long lastTimestamp = current.timestamps[current.size - 1];
+        double lastValue = current.values[current.size - 1];
+        current.removeLast();
+
+        if (current.isEmpty()) {
+            if (!pending.isEmpty()) {
+                select(pending, lastTimestamp, lastValue);
+            }
+        } else {
+            if (!pending.isEmpty()) {
+                select(pending, current.averageTimestamp(), current.averageValue());
+            }
+            select(current, lastTimestamp, lastValue);
+        }
+        emit(lastTimestamp, lastValue);
+        return samples;
+    }
+
+    /**
+     * Pick the point of the bucket forming the largest triangle with the
+     * previously selected point and the next bucket's average
+     */
+    private void select(Bucket bucket, double nextTimestamp, double nextValue) {
+        double maxArea = -1;
+        int chosen = 0;
+        for (int i = 0; i < bucket.size; i++) {
+            double area = Math.abs(
+                    (selectedTimestamp - nextTimestamp) * (bucket.values[i] - selectedValue)
+                  - (selectedTimestamp - bucket.timestamps[i]) * (nextValue - selectedValue));
+            if (area > maxArea) {
+                maxArea = area;
+                chosen = i;
+            }
+        }
+        emit(bucket.timestamps[chosen], bucket.values[chosen]);
+    }
+
+    private void emit(long timestamp, double value) {
+        samples.add(new SeriesSample(timestamp, value));
+        selectedTimestamp = timestamp;
+        selectedValue = value;
+    }
+
+    private static final class Bucket {
+        long[] timestamps = new long[16];
+        double[] values = new double[16];
+        int size;
+        double timestampSum;
+        double valueSum;
+
+        void add(long timestamp, double value) {
+            if (size == timestamps.length) {
+                timestamps = Arrays.copyOf(timestamps, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            timestamps[size] = timestamp;
+            values[size] = value;
+            size++;
+            timestampSum += timestamp;
+            valueSum += value;
+        }
+
+        void removeLast() {
+            size--;
+            timestampSum -= timestamps[size];
+            valueSum -= values[size];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void clear() {
+            size = 0;
+            timestampSum = 0;
+            valueSum = 0;
+        }
+
+        double averageTimestamp() {
+            return timestampSum / size;
+        }
+
+        double averageValue() {
+            return valueSum / size;
+        }
+    }
+}
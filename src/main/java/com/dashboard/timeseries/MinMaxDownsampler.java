@@ -0,0 +1,76 @@
+package com.dashboard.timeseries;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Min/max-per-bucket downsampling in one streaming pass with O(1) state
+ * 
+ * Splits the expected points into maxPoints / 2 equal-count buckets and keeps
+ * the minimum and maximum of each, in time order, so spikes survive.
+ */
+public class MinMaxDownsampler implements Downsampler {
+
+    private final double bucketWidth;
+    private final int lastBucket;
+    private final List<SeriesSample> samples;
+
+    private long seen;
+    private int currentIndex = -1;
+    private long minTimestamp;
+    private double minValue;
+    private long maxTimestamp;
+    private double maxValue;
+
+    public MinMaxDownsampler(int totalPoints, int maxPoints) {
+        if (maxPoints < 2) {
+            throw new IllegalArgumentException("maxPoints must be at least 2: " + maxPoints);
+        }
+        int buckets = Math.max(1, maxPoints / 2);
+        this.bucketWidth = totalPoints > maxPoints ? (double) totalPoints / buckets : 0.5;
+        this.lastBucket = totalPoints > maxPoints ? buckets - 1 : Integer.MAX_VALUE;
+        this.samples = new ArrayList<>(Math.min(totalPoints, maxPoints));
+    }
+
+    @Override
+    public void accept(long timestamp, double value) {
+        int bucket = (int) Math.min((long) (seen++ / bucketWidth), lastBucket);
+        if (bucket != currentIndex) {
+            flush();
+            currentIndex = bucket;
+            minTimestamp = maxTimestamp = timestamp;
+            minValue = maxValue = value;
+            return;
+        }
+        if (value < minValue) {
+            minValue = value;
+            minTimestamp = timestamp;
+        }
+        if (value > maxValue) {
+            maxValue = value;
+            maxTimestamp = timestamp;
+        }
+    }
+
+    @Override
+    public List<SeriesSample> finish() {
+        flush();
+        currentIndex = -1;
+        return samples;
+    }
+
+    private void flush() {
+        if (currentIndex < 0) {
+            return;
+        }
+        if (minTimestamp == maxTimestamp && minValue == maxValue) {
+            samples.add(new SeriesSample(minTimestamp, minValue));
+        } else if (minTimestamp <= maxTimestamp) {
+            samples.add(new SeriesSample(minTimestamp, minValue));
+            samples.add(new SeriesSample(maxTimestamp, maxValue));
+        } else {
+            samples.add(new SeriesSample(maxTimestamp, maxValue));
+            samples.add(new SeriesSample(minTimestamp, minValue));
+        }
+    }
+}
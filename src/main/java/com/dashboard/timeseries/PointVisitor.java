@@ -0,0 +1,10 @@
+package com.dashboard.timeseries;
+
+/**
+ * Receives (timestamp, value) pairs from a series scan without boxing
+ */
+@FunctionalInterface
+public interface PointVisitor {
+
+    void accept(long timestamp, double value);
+}
@@ -0,0 +1,214 @@
+package com.dashboard.timeseries;
+
+/**
+ * Mergeable quantile sketch with a relative-error guarantee (DDSketch)
+ *
+ * Values are counted in logarithmic bins of ratio gamma = (1 + a) / (1 - a),
+ * so any quantile is returned within relative accuracy a of the true value,
+ * whatever the distribution. Positive and negative values have their own
+ * bins; values closer to zero than 1e-9 are counted as zero. Sketches with
+ * the same accuracy merge by adding bin counts, and a value can be removed
+ * again by decrementing its bin, so a sketch always equals the sketch of its
+ * current values. Past {@code maxBins} bins per sign, the bins nearest zero
+ * are collapsed together, trading accuracy for the smallest magnitudes only.
+ *
+ * Not thread-safe.
+ */
+public class QuantileSketch {
+
+    private static final double MIN_INDEXABLE = 1e-9;
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+    private final Bins positive;
+    private final Bins negative;
+    private long zeroCount;
+
+    public QuantileSketch(double relativeAccuracy, int maxBins) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("Relative accuracy must be in (0, 1): " + relativeAccuracy);
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+        this.positive = new Bins(maxBins);
+        this.negative = new Bins(maxBins);
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (value > MIN_INDEXABLE) {
+            positive.add(index(value), 1);
+        } else if (value < -MIN_INDEXABLE) {
+            negative.add(index(-value), 1);
+        } else {
+            zeroCount++;
+        }
+    }
+
+    /**
+     * Take back a value previously added. Returns false if its bin is empty.
+     */
+    public boolean remove(double value) {
+        if (Double.isNaN(value)) {
+            return false;
+        }
+        if (value > MIN_INDEXABLE) {
+            return positive.remove(index(value));
+        }
+        if (value < -MIN_INDEXABLE) {
+            return negative.remove(index(-value));
+        }
+        if (zeroCount == 0) {
+            return false;
+        }
+        zeroCount--;
+        return true;
+    }
+
+    /**
+     * Add every value of another sketch of the same accuracy
+     */
+    public void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Cannot merge sketches of different accuracy");
+        }
+        positive.addAll(other.positive);
+        negative.addAll(other.negative);
+        zeroCount += other.zeroCount;
+    }
+
+    public long count() {
+        return positive.total + negative.total + zeroCount;
+    }
+
+    public boolean isEmpty() {
+        return count() == 0;
+    }
+
+    /**
+     * Value at quantile q in [0, 1], or NaN if the sketch is empty
+     */
+    public double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be in [0, 1]: " + q);
+        }
+        long count = count();
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) (q * (count - 1));
+
+        // Most negative first: negative bins from the largest magnitude down
+        long seen = 0;
+        for (int i = negative.counts.length - 1; i >= 0; i--) {
+            seen += negative.counts[i];
+            if (seen > rank) {
+                return -value(negative.offset + i);
+            }
+        }
+        seen += zeroCount;
+        if (seen > rank) {
+            return 0;
+        }
+        for (int i = 0; i < positive.counts.length; i++) {
+            seen += positive.counts[i];
+            if (seen > rank) {
+                return value(positive.offset + i);
+            }
+        }
+        return value(positive.offset + positive.counts.length - 1);
+    }
+
+    private int index(double magnitude) {
+        return (int) Math.ceil(Math.log(magnitude) / logGamma);
+    }
+
+    /**
+     * Representative value of a bin, within the relative accuracy of every
+     * value that falls into it
+     */
+    private double value(int index) {
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+
+    /**
+     * Dense counts of a contiguous range of bin indexes, grown on demand
+     */
+    private static final class Bins {
+        private static final int INITIAL_LENGTH = 8;
+
+        private final int maxBins;
+        private long[] counts = new long[0];
+        private int offset;
+        private long total;
+
+        Bins(int maxBins) {
+            this.maxBins = maxBins;
+        }
+
+        void add(int index, long count) {
+            if (counts.length == 0) {
+                int length = Math.min(maxBins, INITIAL_LENGTH);
+                counts = new long[length];
+                offset = index - length / 2;
+            }
+            if (index < offset || index >= offset + counts.length) {
+                index = extend(index);
+            }
+            counts[index - offset] += count;
+            total += count;
+        }
+
+        boolean remove(int index) {
+            if (counts.length == 0 || index >= offset + counts.length) {
+                return false;
+            }
+            int slot = Math.max(0, index - offset);
+            if (counts[slot] == 0) {
+                return false;
+            }
+            counts[slot]--;
+            total--;
+            return true;
+        }
+
+        void addAll(Bins other) {
+            for (int i = 0; i < other.counts.length; i++) {
+                if (other.counts[i] > 0) {
+                    add(other.offset + i, other.counts[i]);
+                }
+            }
+        }
+
+        /**
+         * Reallocate to cover the index, with room to grow further in the same
+         * direction, collapsing the lowest bins if the range exceeds maxBins.
+         * Returns the index to count into.
+         */
+        private int extend(int index) {
+            int low = Math.min(offset, index);
+            int high = Math.max(offset + counts.length - 1, index);
+            int length = Math.min(maxBins, high - low + 1 + INITIAL_LENGTH);
+            int newOffset;
+            if (high - low + 1 > maxBins) {
+                newOffset = high - maxBins + 1;
+            } else if (index < offset) {
+                newOffset = high - length + 1;
+            } else {
+                newOffset = low;
+            }
+
+            long[] extended = new long[length];
+            for (int i = 0; i < counts.length; i++) {
+                extended[Math.max(offset + i, newOffset) - newOffset] += counts[i];
+            }
+            counts = extended;
+            offset = newOffset;
+            return Math.max(index, newOffset);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.dashboard.timeseries;
+
+import java.util.List;
+
+/**
+ * Binned scatter of the points of a range: the axes, their bounds, the
+ * total number of points and the non-empty cells
+ */
+public record ScatterGrid(String xAxis, String yAxis, int columns, int rows,
+                          double xMin, double xMax, double yMin, double yMax,
+                          long total, List<Cell> cells) {
+
+    /**
+     * One cell; x and y are the lower bounds of its ranges on each axis
+     */
+    public record Cell(int column, int row, double x, double y, long count, double mean, double min, double max) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.dashboard.timeseries;
+
+/**
+ * Forward-only cursor over a time range of a {@link ColumnarSeries}
+ * 
+ * Reads the series one small page at a time, so memory stays bounded by the
+ * page size however large the range is. Each page resumes after the last
+ * timestamp returned, which keeps the cursor consistent with concurrent
+ * appends.
+ */
+public class SeriesCursor {
+
+    private static final int PAGE_SIZE = 256;
+
+    private final ColumnarSeries series;
+    private final long to;
+    private final long[] timestamps = new long[PAGE_SIZE];
+    private final double[] values = new double[PAGE_SIZE];
+
+    private long resumeFrom;
+    private int resumeSkip;
+    private int position;
+    private int length;
+    private boolean exhausted;
+
+    public SeriesCursor(ColumnarSeries series, long from, long to) {
+        this.series = series;
+        this.to = to;
+        this.resumeFrom = from;
+        fill();
+    }
+
+    public boolean hasNext() {
+        return position < length;
+    }
+
+    public long timestamp() {
+        return timestamps[position];
+    }
+
+    public double value() {
+        return values[position];
+    }
+
+    public void advance() {
+        long current = timestamps[position];
+        if (current == resumeFrom) {
+            resumeSkip++;
+        } else {
+            resumeFrom = current;
+            resumeSkip = 1;
+        }
+        position++;
+        if (position == length && !exhausted) {
+            fill();
+        }
+    }
+
+    private void fill() {
+        length = series.read(resumeFrom, resumeSkip, to, timestamps, values);
+        position = 0;
+        exhausted = length < PAGE_SIZE;
+    }
+}
@@ -0,0 +1,16 @@
+package com.dashboard.timeseries;
+
+import com.dashboard.model.DataPoint;
+
+/**
+ * Identifies a single time series: the (category, label) pair a data point belongs to
+ */
+public record SeriesKey(String category, String label) {
+
+    /**
+     * Series key of the given data point
+     */
+    public static SeriesKey of(DataPoint dataPoint) {
+        return new SeriesKey(dataPoint.getCategory(), dataPoint.getLabel());
+    }
+}
@@ -0,0 +1,117 @@
+package com.dashboard.timeseries;
+
+import com.dashboard.model.DataPoint;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Fixed-capacity ring buffer holding the newest data points of one series
+ * 
+ * Points are kept in timestamp order. Appends of in-order points are O(1);
+ * late points are shifted into place from the tail. Once full, the oldest
+ * point is overwritten.
+ */
+public class SeriesRingBuffer {
+
+    private final DataPoint[] points;
+    private int head;   // index of the oldest point
+    private int size;
+
+    public SeriesRingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.points = new DataPoint[capacity];
+    }
+
+    /**
+     * Add a point, keeping timestamp order. Points older than everything in a
+     * full buffer are ignored.
+     */
+    public synchronized void add(DataPoint dataPoint) {
+        LocalDateTime timestamp = dataPoint.getTimestamp();
+        if (size == points.length) {
+            if (timestamp.isBefore(at(0).getTimestamp())) {
+                return;
+            }
+            // Drop the oldest to make room
+            points[head] = null;
+            head = (head + 1) % points.length;
+            size--;
+        }
+
+        int pos = size;
+        while (pos > 0 && at(pos - 1).getTimestamp().isAfter(timestamp)) {
+            set(pos, at(pos - 1));
+            pos--;
+        }
+        set(pos, dataPoint);
+        size++;
+    }
+
+    /**
+     * Remove the point with the given id, if present
+     */
+    public synchronized boolean remove(Long id) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (Objects.equals(at(i).getId(), id)) {
+                for (int j = i; j < size - 1; j++) {
+                    set(j, at(j + 1));
+                }
+                set(size - 1, null);
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Drop every point older than the cutoff
+     */
+    public synchronized void removeOlderThan(LocalDateTime cutoff) {
+        while (size > 0 && at(0).getTimestamp().isBefore(cutoff)) {
+            points[head] = null;
+            head = (head + 1) % points.length;
+            size--;
+        }
+    }
+
+    /**
+     * Newest point, or null if the buffer is empty
+     */
+    public synchronized DataPoint latest() {
+        return size == 0 ? null : at(size - 1);
+    }
+
+    /**
+     * Up to {@code limit} points, newest first
+     */
+    public synchronized List<DataPoint> newestFirst(int limit) {
+        int count = Math.min(limit, size);
+        List<DataPoint> result = new ArrayList<>(count);
+        for (int i = size - 1; i >= size - count; i--) {
+            result.add(at(i));
+        }
+        return result;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return points.length;
+    }
+
+    private DataPoint at(int offset) {
+        return points[(head + offset) % points.length];
+    }
+
+    private void set(int offset, DataPoint dataPoint) {
+        points[(head + offset) % points.length] = dataPoint;
+    }
+}
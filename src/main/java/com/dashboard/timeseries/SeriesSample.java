@@ -0,0 +1,7 @@
+package com.dashboard.timeseries;
+
+/**
+ * One (epoch-millis timestamp, value) point of a downsampled series
+ */
+public record SeriesSample(long timestamp, double value) {
+}
@@ -0,0 +1,175 @@
+package com.dashboard.timeseries;
+
+/**
+ * Statistics over the last {@code size} values of a stream, updated in O(1)
+ * per value
+ *
+ * The mean and standard deviation come from running sums of the values'
+ * offsets from a shift, the first value and then the window mean at each
+ * full window, when the sums are also recomputed exactly. Floating-point
+ * drift cannot accumulate, and large values with a small spread keep their
+ * precision. Minimum and maximum come from monotonic deques of positions.
+ * The exponential moving average uses alpha = 2 / (size + 1), the usual
+ * span-equivalent smoothing factor. Until {@code size} values have been
+ * seen, the window holds all of them.
+ */
+public class SlidingWindow {
+
+    private final int size;
+    private final double alpha;
+    private final double[] values;
+    private final PositionDeque minima;
+    private final PositionDeque maxima;
+
+    private long count;
+    private double sum;
+    private double sumOfSquares;
+    private double shift;
+    private double ema;
+
+    public SlidingWindow(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Window size must be positive: " + size);
+        }
+        this.size = size;
+        this.alpha = 2.0 / (size + 1);
+        this.values = new double[size];
+        this.minima = new PositionDeque(size);
+        this.maxima = new PositionDeque(size);
+    }
+
+    public void add(double value) {
+        long position = count++;
+        long expired = position - size;
+        minima.dropFrontUpTo(expired);
+        maxima.dropFrontUpTo(expired);
+
+        int slot = (int) (position % size);
+        if (position == 0) {
+            shift = value;
+        }
+        if (expired >= 0) {
+            double evicted = values[slot] - shift;
+            sum -= evicted;
+            sumOfSquares -= evicted * evicted;
+        }
+        values[slot] = value;
+        double offset = value - shift;
+        sum += offset;
+        sumOfSquares += offset * offset;
+        if (slot == size - 1) {
+            resum();
+        }
+
+        while (!minima.isEmpty() && valueAt(minima.back()) >= value) {
+            minima.dropBack();
+        }
+        minima.pushBack(position);
+        while (!maxima.isEmpty() && valueAt(maxima.back()) <= value) {
+            maxima.dropBack();
+        }
+        maxima.pushBack(position);
+
+        ema = position == 0 ? value : ema + alpha * (value - ema);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Values currently in the window
+     */
+    public int count() {
+        return (int) Math.min(count, size);
+    }
+
+    public double mean() {
+        int n = count();
+        return n == 0 ? Double.NaN : shift + sum / n;
+    }
+
+    /**
+     * Population standard deviation of the window
+     */
+    public double stdDev() {
+        int n = count();
+        if (n == 0) {
+            return Double.NaN;
+        }
+        double meanOffset = sum / n;
+        return Math.sqrt(Math.max(0, sumOfSquares / n - meanOffset * meanOffset));
+    }
+
+    public double min() {
+        return minima.isEmpty() ? Double.NaN : valueAt(minima.front());
+    }
+
+    public double max() {
+        return maxima.isEmpty() ? Double.NaN : valueAt(maxima.front());
+    }
+
+    public double ema() {
+        return count == 0 ? Double.NaN : ema;
+    }
+
+    private double valueAt(long position) {
+        return values[(int) (position % size)];
+    }
+
+    private void resum() {
+        double total = 0;
+        for (double value : values) {
+            total += value;
+        }
+        shift = total / size;
+        sum = 0;
+        sumOfSquares = 0;
+        for (double value : values) {
+            double offset = value - shift;
+            sum += offset;
+            sumOfSquares += offset * offset;
+        }
+    }
+
+    /**
+     * Bounded double-ended queue of stream positions in a circular array
+     */
+    private static final class PositionDeque {
+        private final long[] positions;
+        private int head;
+        private int length;
+
+        PositionDeque(int capacity) {
+            this.positions = new long[capacity];
+        }
+
+        boolean isEmpty() {
+            return length == 0;
+        }
+
+        long front() {
+            return positions[head];
+        }
+
+        long back() {
+            return positions[(head + length - 1) % positions.length];
+        }
+
+        void pushBack(long position) {
+            positions[(head + length) % positions.length] = position;
+            length++;
+        }
+
+        void dropBack() {
+            length--;
+        }
+
+        void dropFrontUpTo(long position) {
+            while (length > 0 && positions[head] <= position) {
+                head = (head + 1) % positions.length;
+                length--;
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.dashboard.timeseries;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Conversions between entity timestamps and the epoch-millis used by the
+ * in-memory series structures. Timestamps are treated as UTC, matching
+ * the Jackson configuration.
+ */
+public final class Timestamps {
+
+    private Timestamps() {
+    }
+
+    public static long toEpochMillis(LocalDateTime timestamp) {
+        return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    public static LocalDateTime fromEpochMillis(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,9 @@
+package com.dashboard.timeseries;
+
+/**
+ * One point of a series with the sliding-window statistics of the window
+ * ending at it
+ */
+public record WindowSample(long timestamp, double value, double movingAverage, double ema, double stdDev,
+                           double min, double max) {
+}
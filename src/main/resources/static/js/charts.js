@@ -228,6 +228,9 @@ class AdvancedCharts {
                 responsive: true,
                 maintainAspectRatio: false,
                 scales: {
+                    x: {
+                        type: 'time'
+                    },
                     y: {
                         beginAtZero: true
                     }
@@ -247,8 +250,7 @@ class AdvancedCharts {
                     label: 'Data Distribution',
                     data: [],
                     backgroundColor: function(context) {
-                        const value = context.parsed.y;
-                        const alpha = Math.min(value / 100, 1);
+                        const alpha = context.raw ? Math.max(context.raw.density, 0.1) : 0;
                         return `rgba(255, 99, 132, ${alpha})`;
                     },
                     pointRadius: 5
@@ -416,13 +418,28 @@ class AdvancedCharts {
         }
     }
     
+    // One line dataset per series, points as {x, y}
+    seriesDatasets(series, valueOf) {
+        return series.map((item, index) => {
+            const hue = (index * 137) % 360;
+            return {
+                label: `${item.category} / ${item.label}`,
+                data: item.samples.map(sample => ({ x: new Date(sample.timestamp), y: valueOf(sample) })),
+                borderColor: `hsl(${hue}, 60%, 50%)`,
+                backgroundColor: `hsla(${hue}, 60%, 50%, 0.1)`,
+                tension: 0.4,
+                fill: false
+            };
+        });
+    }
+    
     // Update primary chart
     updatePrimaryChart(data) {
-        if (!this.charts.primary || !data) return;
+        if (!this.charts.primary || !Array.isArray(data)) return;
         
         const chart = this.charts.primary;
-        chart.data.labels = data.map(item => new Date(item.timestamp));
-        chart.data.datasets[0].data = data.map(item => item.value);
+        chart.data.labels = [];
+        chart.data.datasets = this.seriesDatasets(data, sample => sample.value);
         chart.update();
     }
     
@@ -448,11 +465,11 @@ class AdvancedCharts {
     
     // Update trend chart
     updateTrendChart(data) {
-        if (!this.charts.trend || !data) return;
+        if (!this.charts.trend || !Array.isArray(data)) return;
         
         const chart = this.charts.trend;
-        chart.data.labels = data.map(item => new Date(item.timestamp));
-        chart.data.datasets[0].data = data.map(item => item.movingAverage);
+        chart.data.labels = [];
+        chart.data.datasets = this.seriesDatasets(data, sample => sample.movingAverage);
         chart.update();
     }
     
@@ -461,9 +478,13 @@ class AdvancedCharts {
         if (!this.charts.heatmap || !data) return;
         
         const chart = this.charts.heatmap;
-        chart.data.datasets[0].data = data.map(item => ({
-            x: item.hour,
-            y: item.value
+        const cells = data.cells || [];
+        const maxCount = cells.reduce((max, cell) => Math.max(max, cell.count), 1);
+        chart.data.datasets[0].data = cells.map(cell => ({
+            x: cell.x,
+            y: cell.y,
+            count: cell.count,
+            density: cell.count / maxCount
         }));
         chart.update();
     }
@@ -514,34 +535,46 @@ class AdvancedCharts {
     setupEventListeners() {
         // Subscribe to WebSocket updates if dashboard is available
         if (window.dashboard && window.dashboard.stompClient && window.dashboard.isConnected) {
-            // Update charts when new data arrives
-            const originalHandler = window.dashboard.handleNewDataPoint;
-            window.dashboard.handleNewDataPoint = (dataPoint) => {
-                originalHandler.call(window.dashboard, dataPoint);
-                this.handleNewDataPoint(dataPoint);
+            // Update charts when a coalesced frame of data points arrives
+            const originalHandler = window.dashboard.handleCoalescedDataPoints;
+            window.dashboard.handleCoalescedDataPoints = (dataPoints) => {
+                const previousCounter = window.dashboard.updateCounter;
+                originalHandler.call(window.dashboard, dataPoints);
+                this.handleNewDataPoints(dataPoints, previousCounter);
             };
         }
     }
     
-    // Handle new data point for chart updates
-    handleNewDataPoint(dataPoint) {
-        // Update primary chart with new data point
-        if (this.charts.primary && (!this.currentFilters.category || dataPoint.category === this.currentFilters.category)) {
+    // Handle a frame of new data points for chart updates
+    handleNewDataPoints(dataPoints, previousCounter) {
+        // Update primary chart with every point in the frame, redrawing once
+        if (this.charts.primary) {
             const chart = this.charts.primary;
-            chart.data.labels.push(new Date(dataPoint.timestamp));
-            chart.data.datasets[0].data.push(dataPoint.value);
+            let changed = false;
+            dataPoints.forEach(dataPoint => {
+                if (this.currentFilters.category && dataPoint.category !== this.currentFilters.category) {
+                    return;
+                }
+                const dataset = chart.data.datasets.find(
+                    candidate => candidate.label === `${dataPoint.category} / ${dataPoint.label}`);
+                if (dataset) {
+                    dataset.data.push({ x: new Date(dataPoint.timestamp), y: dataPoint.value });
+                    
+                    // Keep each series bounded for performance
+                    if (dataset.data.length > 1000) {
+                        dataset.data.shift();
+                    }
+                    changed = true;
+                }
+            });
             
-            // Keep only last 50 points for performance
-            if (chart.data.labels.length > 50) {
-                chart.data.labels.shift();
-                chart.data.datasets[0].data.shift();
+            if (changed) {
+                chart.update('none');
             }
-            
-            chart.update('none');
         }
         
         // Update statistics every 10 data points
-        if (window.dashboard && window.dashboard.updateCounter % 10 === 0) {
+        if (Math.floor(window.dashboard.updateCounter / 10) > Math.floor(previousCounter / 10)) {
             this.updateStatistics();
         }
     }
@@ -15,6 +15,9 @@ class RealTimeDashboard {
         };
         this.updateCounter = 0;
         
+        // Series dictionary of the delta-encoded data point stream
+        this.deltaSeries = {};
+        
         // Initialize dashboard
         this.init();
     }
@@ -55,17 +58,13 @@ class RealTimeDashboard {
             this.isConnected = true;
             this.updateConnectionStatus(true);
             
-            // Subscribe to data point updates
+            // Subscribe to data point updates, coalesced by the server into
+            // one delta-encoded frame per batching window (covers batch saves too)
+            this.deltaSeries = {};
             this.stompClient.subscribe('/topic/datapoints', (message) => {
-                const dataPoint = JSON.parse(message.body);
-                this.handleNewDataPoint(dataPoint);
-            });
-            
-            // Subscribe to batch updates
-            this.stompClient.subscribe('/topic/datapoints/batch', (message) => {
-                const dataPoints = JSON.parse(message.body);
-                this.handleBatchDataPoints(dataPoints);
-            });
+                const dataPoints = this.decodeDeltaFrame(JSON.parse(message.body));
+                this.handleCoalescedDataPoints(dataPoints);
+            }, { accept: 'application/vnd.dashboard.delta+json' });
             
             // Subscribe to system status
             this.stompClient.subscribe('/topic/system/status', (message) => {
@@ -357,6 +356,40 @@ class RealTimeDashboard {
         }
     }
     
+    // Decode a delta frame into data points, skipping series not yet
+    // announced (they are repeated in the next keyframe)
+    decodeDeltaFrame(frame) {
+        if (frame.k) {
+            this.deltaSeries = {};
+        }
+        frame.s.forEach(([id, category, label, unit, source]) => {
+            this.deltaSeries[id] = { category, label, unit, source };
+        });
+        
+        const dataPoints = [];
+        for (let i = 0; i < frame.p.length; i += 3) {
+            const series = this.deltaSeries[frame.p[i]];
+            if (!series) {
+                continue;
+            }
+            // Server timestamps are zone-less local date-times
+            const timestamp = new Date(frame.t + frame.p[i + 1]).toISOString().slice(0, 23);
+            dataPoints.push({ ...series, timestamp, value: frame.p[i + 2] });
+        }
+        return dataPoints;
+    }
+    
+    // Handle a coalesced frame of data points
+    handleCoalescedDataPoints(dataPoints) {
+        const previousCounter = this.updateCounter;
+        this.handleBatchDataPoints(dataPoints);
+        
+        // Reload aggregated data every 10 updates
+        if (Math.floor(this.updateCounter / 10) > Math.floor(previousCounter / 10)) {
+            this.loadAggregatedData();
+        }
+    }
+    
     // Handle batch data points
     handleBatchDataPoints(dataPoints) {
         console.log('Received batch data points:', dataPoints.length);
@@ -483,7 +516,7 @@ class RealTimeDashboard {
         document.getElementById('activeCategories').textContent = 
             this.dataCache.categories.length;
         
-        // Real-time updates counter is updated in handleNewDataPoint
+        // Real-time updates counter is updated in handleBatchDataPoints
     }
     
     // Setup periodic updates
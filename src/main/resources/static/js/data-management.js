@@ -3,6 +3,12 @@ let dataTable = [];
 let currentPage = 1;
 const recordsPerPage = 20;
 
+// Keyset paging state: cursor of each visited page, server-side sort
+let pageCursors = [null];
+let nextCursor = null;
+let sortField = 'timestamp';
+let sortDirection = 'desc';
+
 // Initialize the page
 document.addEventListener('DOMContentLoaded', () => {
     loadDataStatistics();
@@ -14,23 +20,12 @@ document.addEventListener('DOMContentLoaded', () => {
 // Load data statistics
 async function loadDataStatistics() {
     try {
-        // Get total records
-        const allData = await fetch('/api/datapoints').then(r => r.json());
-        document.getElementById('totalRecords').textContent = allData.length;
-        
-        // Get categories
-        const categories = await fetch('/api/datapoints/categories').then(r => r.json());
-        document.getElementById('totalCategories').textContent = categories.length;
-        
-        // Get today's records
-        const today = new Date();
-        today.setHours(0, 0, 0, 0);
-        const todayRecords = allData.filter(d => new Date(d.timestamp) >= today);
-        document.getElementById('todayRecords').textContent = todayRecords.length;
-        
-        // Calculate average value
-        const avgValue = allData.reduce((sum, d) => sum + d.value, 0) / allData.length;
-        document.getElementById('avgValue').textContent = avgValue.toFixed(2);
+        // Counters maintained by the server, no table scan
+        const stats = await fetch('/api/datapoints/stats').then(r => r.json());
+        document.getElementById('totalRecords').textContent = stats.totalCount;
+        document.getElementById('totalCategories').textContent = stats.distinctCategories;
+        document.getElementById('todayRecords').textContent = stats.todayCount;
+        document.getElementById('avgValue').textContent = stats.averageValue.toFixed(2);
         
     } catch (error) {
         console.error('Error loading statistics:', error);
@@ -65,11 +60,30 @@ async function loadCategories() {
     }
 }
 
-// Load data table
+// Load data table: one server-side page, filtered and sorted by the API
 async function loadDataTable() {
     try {
-        const response = await fetch('/api/datapoints/recent?limit=1000');
-        dataTable = await response.json();
+        const params = new URLSearchParams({
+            sort: sortField,
+            direction: sortDirection,
+            limit: recordsPerPage
+        });
+        const category = document.getElementById('categoryFilter')?.value;
+        const source = document.getElementById('sourceFilter')?.value;
+        const dateFrom = document.getElementById('dateFromFilter')?.value;
+        const dateTo = document.getElementById('dateToFilter')?.value;
+        if (category) params.append('category', category);
+        if (source) params.append('source', source);
+        if (dateFrom) params.append('startTime', `${dateFrom}T00:00:00`);
+        if (dateTo) params.append('endTime', `${dateTo}T23:59:59`);
+        
+        const cursor = pageCursors[currentPage - 1];
+        if (cursor) params.append('cursor', cursor);
+        
+        const response = await fetch(`/api/datapoints/page?${params}`);
+        const page = await response.json();
+        dataTable = page.items;
+        nextCursor = page.nextCursor;
         renderTable();
     } catch (error) {
         console.error('Error loading data table:', error);
@@ -81,9 +95,11 @@ function renderTable() {
     const tbody = document.getElementById('dataTableBody');
     if (!tbody) return;
     
-    const start = (currentPage - 1) * recordsPerPage;
-    const end = start + recordsPerPage;
-    const pageData = dataTable.slice(start, end);
+    const search = document.getElementById('searchInput')?.value.toLowerCase() || '';
+    const pageData = dataTable.filter(data => !search ||
+        data.category.toLowerCase().includes(search) ||
+        (data.label && data.label.toLowerCase().includes(search)) ||
+        (data.source && data.source.toLowerCase().includes(search)));
     
     tbody.innerHTML = pageData.map(data => `
         <tr>
@@ -108,9 +124,8 @@ function renderTable() {
     updatePagination();
 }
 
-// Update pagination
+// Update pagination: keyset pages only step forward and back
 function updatePagination() {
-    const totalPages = Math.ceil(dataTable.length / recordsPerPage);
     const pagination = document.getElementById('pagination');
     if (!pagination) return;
     
@@ -118,15 +133,10 @@ function updatePagination() {
         <li class="page-item ${currentPage === 1 ? 'disabled' : ''}">
             <a class="page-link" href="#" onclick="changePage(${currentPage - 1}); return false;">Previous</a>
         </li>
-        ${Array.from({length: Math.min(5, totalPages)}, (_, i) => {
-            const page = i + 1;
-            return `
-                <li class="page-item ${currentPage === page ? 'active' : ''}">
-                    <a class="page-link" href="#" onclick="changePage(${page}); return false;">${page}</a>
-                </li>
-            `;
-        }).join('')}
-        <li class="page-item ${currentPage === totalPages ? 'disabled' : ''}">
+        <li class="page-item active">
+            <span class="page-link">${currentPage}</span>
+        </li>
+        <li class="page-item ${nextCursor ? '' : 'disabled'}">
             <a class="page-link" href="#" onclick="changePage(${currentPage + 1}); return false;">Next</a>
         </li>
     `;
@@ -134,61 +144,54 @@ function updatePagination() {
 
 // Change page
 function changePage(page) {
-    const totalPages = Math.ceil(dataTable.length / recordsPerPage);
-    if (page < 1 || page > totalPages) return;
+    if (page < 1) return;
+    if (page > currentPage) {
+        if (!nextCursor) return;
+        pageCursors[page - 1] = nextCursor;
+    }
     currentPage = page;
-    renderTable();
+    loadDataTable();
+}
+
+// Sort by a column on the server, toggling direction on repeated clicks
+function sortTable(field) {
+    if (sortField === field) {
+        sortDirection = sortDirection === 'desc' ? 'asc' : 'desc';
+    } else {
+        sortField = field;
+        sortDirection = 'desc';
+    }
+    resetPaging();
+    loadDataTable();
+}
+
+function resetPaging() {
+    pageCursors = [null];
+    nextCursor = null;
+    currentPage = 1;
 }
 
 // Setup event listeners
 function setupEventListeners() {
-    // Search input
+    // Search input filters the loaded page
     const searchInput = document.getElementById('searchInput');
     if (searchInput) {
-        searchInput.addEventListener('input', filterData);
+        searchInput.addEventListener('input', renderTable);
     }
     
-    // Category filter
-    const categoryFilter = document.getElementById('categoryFilter');
-    if (categoryFilter) {
-        categoryFilter.addEventListener('change', filterData);
-    }
-    
-    // Date filter
-    const startDate = document.getElementById('startDate');
-    const endDate = document.getElementById('endDate');
-    if (startDate && endDate) {
-        startDate.addEventListener('change', filterData);
-        endDate.addEventListener('change', filterData);
-    }
+    // Category, source and date filters are applied by the server
+    ['categoryFilter', 'sourceFilter', 'dateFromFilter', 'dateToFilter'].forEach(id => {
+        const element = document.getElementById(id);
+        if (element) {
+            element.addEventListener('change', filterData);
+        }
+    });
 }
 
 // Filter data
 function filterData() {
-    const search = document.getElementById('searchInput')?.value.toLowerCase() || '';
-    const category = document.getElementById('categoryFilter')?.value || '';
-    const startDate = document.getElementById('startDate')?.value || '';
-    const endDate = document.getElementById('endDate')?.value || '';
-    
-    loadDataTable().then(() => {
-        dataTable = dataTable.filter(data => {
-            const matchSearch = !search || 
-                data.category.toLowerCase().includes(search) ||
-                (data.label && data.label.toLowerCase().includes(search)) ||
-                (data.source && data.source.toLowerCase().includes(search));
-            
-            const matchCategory = !category || data.category === category;
-            
-            const dataDate = new Date(data.timestamp);
-            const matchStartDate = !startDate || dataDate >= new Date(startDate);
-            const matchEndDate = !endDate || dataDate <= new Date(endDate);
-            
-            return matchSearch && matchCategory && matchStartDate && matchEndDate;
-        });
-        
-        currentPage = 1;
-        renderTable();
-    });
+    resetPaging();
+    loadDataTable();
 }
 
 // Generate bulk data
@@ -213,26 +216,14 @@ async function generateBulkData() {
 }
 
 // Export all data
-async function exportAllData() {
-    try {
-        const response = await fetch('/api/datapoints');
-        const data = await response.json();
-        
-        const blob = new Blob([JSON.stringify(data, null, 2)], { type: 'application/json' });
-        const url = URL.createObjectURL(blob);
-        const a = document.createElement('a');
-        a.href = url;
-        a.download = `data-export-${new Date().toISOString()}.json`;
-        document.body.appendChild(a);
-        a.click();
-        document.body.removeChild(a);
-        URL.revokeObjectURL(url);
-        
-        alert('Data exported successfully!');
-    } catch (error) {
-        console.error('Error exporting data:', error);
-        alert('Failed to export data');
-    }
+function exportAllData() {
+    // Let the browser stream the server-side export straight to disk
+    const a = document.createElement('a');
+    a.href = '/api/datapoints/export?format=ndjson&gzip=true&startTime=1970-01-01T00:00:00';
+    a.download = `data-export-${new Date().toISOString()}.ndjson.gz`;
+    document.body.appendChild(a);
+    a.click();
+    document.body.removeChild(a);
 }
 
 // View data details
@@ -0,0 +1,113 @@
+package com.dashboard.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MpscRingBufferTest {
+
+    @Test
+    void capacityIsRoundedUpToAPowerOfTwo() {
+        assertThat(new MpscRingBuffer<Integer>(1).capacity()).isEqualTo(2);
+        assertThat(new MpscRingBuffer<Integer>(8).capacity()).isEqualTo(8);
+        assertThat(new MpscRingBuffer<Integer>(1000).capacity()).isEqualTo(1024);
+    }
+
+    @Test
+    void offerFailsWhenFullAndSucceedsOnceSpaceIsFreed() {
+        MpscRingBuffer<Integer> ring = new MpscRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(ring.offer(i)).isTrue();
+        }
+
+        assertThat(ring.offer(4)).isFalse();
+        assertThat(ring.size()).isEqualTo(4);
+
+        assertThat(ring.poll()).isEqualTo(0);
+        assertThat(ring.offer(4)).isTrue();
+        assertThat(ring.offer(5)).isFalse();
+    }
+
+    @Test
+    void elementsComeOutInOrderAcrossLaps() {
+        MpscRingBuffer<Integer> ring = new MpscRingBuffer<>(4);
+        List<Integer> taken = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            assertThat(ring.offer(i)).isTrue();
+            if (i % 3 == 2) {
+                ring.drainTo(taken, 3);
+            }
+        }
+        ring.drainTo(taken, Integer.MAX_VALUE);
+
+        assertThat(taken).hasSize(100);
+        for (int i = 0; i < taken.size(); i++) {
+            assertThat(taken.get(i)).isEqualTo(i);
+        }
+        assertThat(ring.isEmpty()).isTrue();
+        assertThat(ring.poll()).isNull();
+    }
+
+    @Test
+    void drainToStopsAtMax() {
+        MpscRingBuffer<Integer> ring = new MpscRingBuffer<>(8);
+        for (int i = 0; i < 5; i++) {
+            ring.offer(i);
+        }
+        List<Integer> taken = new ArrayList<>();
+
+        assertThat(ring.drainTo(taken, 3)).isEqualTo(3);
+        assertThat(taken).containsExactly(0, 1, 2);
+        assertThat(ring.size()).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentProducersLoseNothingAndKeepTheirOwnOrder() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 100_000;
+        MpscRingBuffer<long[]> ring = new MpscRingBuffer<>(64);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (long i = 0; i < perProducer; i++) {
+                    while (!ring.offer(new long[] {producer, i})) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        long[] next = new long[producers];
+        int received = 0;
+        start.countDown();
+        while (received < producers * perProducer) {
+            long[] element = ring.poll();
+            if (element == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            assertThat(element[1]).isEqualTo(next[(int) element[0]]);
+            next[(int) element[0]]++;
+            received++;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(next).containsOnly(perProducer);
+        assertThat(ring.poll()).isNull();
+    }
+}
@@ -0,0 +1,158 @@
+package com.dashboard.storage;
+
+import com.dashboard.model.DataPoint;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SegmentLogTest {
+
+    private static final int SEGMENT_BYTES = 64 * 1024;
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void corruptTailRecordIsDroppedAndOverwritten() throws IOException {
+        int tail = appendAndClose(1, 10);
+        int last = tail - Segment.RECORD_HEADER_BYTES - record(10).encode().length;
+
+        // Damage the payload of the last record, as if its page never reached the disk
+        writeAt(last + Segment.RECORD_HEADER_BYTES + 3, new byte[] {(byte) 0xFF, (byte) 0xFF});
+
+        assertThat(reopenedIds()).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L);
+
+        try (SegmentLog log = open()) {
+            log.append(record(11));
+        }
+        assertThat(reopenedIds()).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 11L);
+    }
+
+    @Test
+    void lengthWrittenWithoutItsPayloadIsIgnored() throws IOException {
+        int tail = appendAndClose(1, 10);
+
+        // A record header pointing at payload bytes that were never written
+        ByteBuffer header = ByteBuffer.allocate(Segment.RECORD_HEADER_BYTES).putInt(500).putInt(0x12345678);
+        writeAt(tail, header.array());
+        writeAt(tail + Segment.RECORD_HEADER_BYTES, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+
+        assertThat(reopenedIds()).hasSize(10);
+
+        // A shorter record appended after recovery must not pick up the torn remains
+        try (SegmentLog log = open()) {
+            log.append(LogRecord.truncate(START));
+            log.append(record(12));
+        }
+        List<LogRecord> records = reopened();
+        assertThat(records).hasSize(12);
+        assertThat(records.get(10).type()).isEqualTo(LogRecord.Type.TRUNCATE);
+        assertThat(records.get(11).id()).isEqualTo(12);
+    }
+
+    @Test
+    void sealedSegmentsReopenWithOrWithoutTheirIndex() throws IOException {
+        try (SegmentLog log = open(1024)) {
+            for (long id = 1; id <= 100; id++) {
+                log.append(record(id));
+            }
+        }
+
+        try (SegmentLog log = open(1024)) {
+            assertThat(log.getSegmentCount()).isGreaterThan(1);
+            assertThat(log.getRecordCount()).isEqualTo(100);
+        }
+        assertThat(ids(open(1024))).hasSize(100).isSorted();
+
+        try (var indexes = Files.list(directory)) {
+            for (Path index : indexes.filter(path -> path.toString().endsWith(".idx")).toList()) {
+                Files.delete(index);
+            }
+        }
+        assertThat(ids(open(1024))).hasSize(100).isSorted();
+    }
+
+    @Test
+    void replaySkipsBlocksOlderThanTheStart() throws IOException {
+        try (SegmentLog log = open()) {
+            for (long id = 1; id <= 40; id++) {
+                log.append(record(id));
+            }
+        }
+
+        List<Long> ids = new ArrayList<>();
+        try (SegmentLog log = open()) {
+            log.replay(record(30).timestampMillis(), record -> ids.add(record.id()));
+        }
+
+        // Whole blocks of four are skipped; the block holding record 30 starts at 29
+        assertThat(ids).containsExactly(29L, 30L, 31L, 32L, 33L, 34L, 35L, 36L, 37L, 38L, 39L, 40L);
+    }
+
+    private int appendAndClose(long firstId, long lastId) throws IOException {
+        int tail = Segment.HEADER_BYTES;
+        try (SegmentLog log = open()) {
+            for (long id = firstId; id <= lastId; id++) {
+                LogRecord record = record(id);
+                log.append(record);
+                tail += Segment.RECORD_HEADER_BYTES + record.encode().length;
+            }
+        }
+        return tail;
+    }
+
+    private SegmentLog open() throws IOException {
+        return open(SEGMENT_BYTES);
+    }
+
+    private SegmentLog open(int segmentBytes) throws IOException {
+        SegmentLog log = new SegmentLog(directory, segmentBytes, 4);
+        log.open();
+        return log;
+    }
+
+    private List<LogRecord> reopened() throws IOException {
+        List<LogRecord> records = new ArrayList<>();
+        try (SegmentLog log = open()) {
+            log.replay(Long.MIN_VALUE, records::add);
+        }
+        return records;
+    }
+
+    private List<Long> reopenedIds() throws IOException {
+        return ids(open());
+    }
+
+    private static List<Long> ids(SegmentLog log) {
+        List<Long> ids = new ArrayList<>();
+        try (log) {
+            log.replay(Long.MIN_VALUE, record -> ids.add(record.id()));
+        }
+        return ids;
+    }
+
+    private void writeAt(int offset, byte[] bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory.resolve(Segment.fileName(1)), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes), offset);
+        }
+    }
+
+    private static LogRecord record(long id) {
+        DataPoint dataPoint = new DataPoint("Sales", (double) id, "Revenue", "CRM", null, "USD");
+        dataPoint.setId(id);
+        dataPoint.setTimestamp(START.plusMinutes(id));
+        return LogRecord.put(dataPoint);
+    }
+}
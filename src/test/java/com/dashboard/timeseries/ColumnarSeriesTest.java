@@ -0,0 +1,143 @@
+package com.dashboard.timeseries;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ColumnarSeriesTest {
+
+    private record Point(long timestamp, double value) {
+    }
+
+    @Test
+    void outOfOrderInsertsScanInTimeOrder() {
+        ColumnarSeries series = new ColumnarSeries(4);
+        Random random = new Random(3);
+        List<Point> expected = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            long timestamp = random.nextInt(200);
+            series.add(timestamp, i, i);
+            expected.add(new Point(timestamp, i));
+        }
+        expected.sort(Comparator.comparingLong(Point::timestamp));
+
+        List<Point> scanned = scan(series, Long.MIN_VALUE, Long.MAX_VALUE);
+
+        assertThat(series.size()).isEqualTo(500);
+        assertThat(scanned).extracting(Point::timestamp)
+                .containsExactlyElementsOf(expected.stream().map(Point::timestamp).toList());
+        assertThat(scanned).extracting(Point::value)
+                .containsExactlyInAnyOrderElementsOf(expected.stream().map(Point::value).toList());
+    }
+
+    @Test
+    void rangeBoundsAreInclusive() {
+        ColumnarSeries series = seriesOf(4, 0, 10, 20, 30, 40, 50, 60, 70, 80, 90);
+
+        assertThat(scan(series, 20, 60)).extracting(Point::timestamp).containsExactly(20L, 30L, 40L, 50L, 60L);
+        assertThat(scan(series, 21, 59)).extracting(Point::timestamp).containsExactly(30L, 40L, 50L);
+        assertThat(scan(series, 100, 200)).isEmpty();
+        assertThat(series.count(20, 60)).isEqualTo(5);
+        assertThat(series.count(21, 59)).isEqualTo(3);
+        assertThat(series.count(-10, -1)).isZero();
+        assertThat(series.count(Long.MIN_VALUE, Long.MAX_VALUE)).isEqualTo(10);
+    }
+
+    @Test
+    void removeTakesOnlyThePointWithTheId() {
+        ColumnarSeries series = new ColumnarSeries(4);
+        for (int i = 0; i < 10; i++) {
+            series.add(5, i, i);
+        }
+
+        assertThat(series.remove(5, 7)).isTrue();
+        assertThat(series.remove(5, 7)).isFalse();
+        assertThat(series.remove(6, 1)).isFalse();
+
+        assertThat(series.size()).isEqualTo(9);
+        assertThat(scan(series, 5, 5)).extracting(Point::value).doesNotContain(7.0);
+    }
+
+    @Test
+    void removeOlderThanDropsWholeChunksAndTrimsTheBoundary() {
+        ColumnarSeries series = seriesOf(4, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+
+        series.removeOlderThan(6);
+
+        assertThat(series.size()).isEqualTo(4);
+        assertThat(scan(series, Long.MIN_VALUE, Long.MAX_VALUE)).extracting(Point::timestamp)
+                .containsExactly(6L, 7L, 8L, 9L);
+
+        series.removeOlderThan(100);
+        assertThat(series.size()).isZero();
+        assertThat(scan(series, Long.MIN_VALUE, Long.MAX_VALUE)).isEmpty();
+    }
+
+    @Test
+    void scanLastVisitsTheNewestPointsInOrder() {
+        ColumnarSeries series = seriesOf(4, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        List<Long> visited = new ArrayList<>();
+
+        series.scanLast(6, (timestamp, value) -> visited.add(timestamp));
+        assertThat(visited).containsExactly(4L, 5L, 6L, 7L, 8L, 9L);
+
+        visited.clear();
+        series.scanLast(50, (timestamp, value) -> visited.add(timestamp));
+        assertThat(visited).hasSize(10);
+
+        visited.clear();
+        series.scanLast(0, (timestamp, value) -> visited.add(timestamp));
+        assertThat(visited).isEmpty();
+    }
+
+    @Test
+    void readSkipsAndPages() {
+        ColumnarSeries series = seriesOf(4, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        long[] timestamps = new long[3];
+        double[] values = new double[3];
+
+        assertThat(series.read(2, 0, 100, timestamps, values)).isEqualTo(3);
+        assertThat(timestamps).containsExactly(2, 3, 4);
+
+        assertThat(series.read(2, 5, 100, timestamps, values)).isEqualTo(3);
+        assertThat(timestamps).containsExactly(7, 8, 9);
+
+        assertThat(series.read(2, 6, 8, timestamps, values)).isEqualTo(1);
+        assertThat(timestamps[0]).isEqualTo(8);
+    }
+
+    @Test
+    void invertedRangeIsEmpty() {
+        ColumnarSeries series = seriesOf(4, 10, 20, 30, 40, 50, 60, 70, 80, 90);
+
+        assertThat(series.count(70, 30)).isZero();
+        assertThat(series.count(40, 40)).isEqualTo(1);
+        assertThat(scan(series, 70, 30)).isEmpty();
+        assertThat(series.read(70, 0, 30, new long[8], new double[8])).isZero();
+    }
+
+    @Test
+    void chunkSizeMustHoldTwoPoints() {
+        assertThatThrownBy(() -> new ColumnarSeries(1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static ColumnarSeries seriesOf(int chunkSize, long... timestamps) {
+        ColumnarSeries series = new ColumnarSeries(chunkSize);
+        for (int i = 0; i < timestamps.length; i++) {
+            series.add(timestamps[i], timestamps[i], i);
+        }
+        return series;
+    }
+
+    private static List<Point> scan(ColumnarSeries series, long from, long to) {
+        List<Point> points = new ArrayList<>();
+        series.scan(from, to, (timestamp, value) -> points.add(new Point(timestamp, value)));
+        return points;
+    }
+}
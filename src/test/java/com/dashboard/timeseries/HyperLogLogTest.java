@@ -0,0 +1,86 @@
+package com.dashboard.timeseries;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+
+    @Test
+    void emptySketchEstimatesZero() {
+        assertThat(new HyperLogLog(11).estimate()).isZero();
+    }
+
+    @Test
+    void duplicatesAreCountedOnce() {
+        HyperLogLog sketch = new HyperLogLog(11);
+        for (int i = 0; i < 10_000; i++) {
+            sketch.add("source-" + (i % 10));
+        }
+        assertThat(sketch.estimate()).isEqualTo(10);
+    }
+
+    @Test
+    void smallCardinalitiesUseLinearCounting() {
+        HyperLogLog sketch = new HyperLogLog(11);
+        for (int i = 0; i < 500; i++) {
+            sketch.add("label-" + i);
+        }
+        assertThat((double) sketch.estimate()).isCloseTo(500, within(500 * 0.03));
+    }
+
+    @Test
+    void largeCardinalitiesStayWithinFourStandardErrors() {
+        for (int distinct : new int[] {10_000, 100_000, 1_000_000}) {
+            HyperLogLog sketch = new HyperLogLog(11);
+            for (int i = 0; i < distinct; i++) {
+                sketch.add("value-" + i);
+            }
+            assertThat((double) sketch.estimate())
+                    .isCloseTo(distinct, within(distinct * 4 * sketch.standardError()));
+        }
+    }
+
+    @Test
+    void standardErrorFollowsThePrecision() {
+        assertThat(new HyperLogLog(11).standardError()).isCloseTo(0.023, within(0.0005));
+        assertThat(new HyperLogLog(14).standardError()).isCloseTo(0.0081, within(0.0005));
+    }
+
+    @Test
+    void mergeEqualsTheSketchOfTheUnion() {
+        HyperLogLog left = new HyperLogLog(11);
+        HyperLogLog right = new HyperLogLog(11);
+        HyperLogLog union = new HyperLogLog(11);
+        for (int i = 0; i < 50_000; i++) {
+            // Overlapping halves: 0..29999 and 20000..49999
+            String value = "value-" + i;
+            if (i < 30_000) {
+                left.add(value);
+            }
+            if (i >= 20_000) {
+                right.add(value);
+            }
+            union.add(value);
+        }
+
+        left.merge(right);
+
+        assertThat(left.estimate()).isEqualTo(union.estimate());
+    }
+
+    @Test
+    void mergeRejectsADifferentPrecision() {
+        HyperLogLog sketch = new HyperLogLog(11);
+        assertThatThrownBy(() -> sketch.merge(new HyperLogLog(12)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void precisionIsBounded() {
+        assertThatThrownBy(() -> new HyperLogLog(3)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HyperLogLog(19)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
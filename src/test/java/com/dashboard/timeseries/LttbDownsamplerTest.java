@@ -0,0 +1,151 @@
+package com.dashboard.timeseries;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LttbDownsamplerTest {
+
+    @Test
+    void shortSeriesIsReturnedUnchanged() {
+        long[] timestamps = {1, 2, 3, 4, 5};
+        double[] values = {5, 3, 8, 1, 9};
+
+        List<SeriesSample> samples = downsample(timestamps, values, timestamps.length, 10);
+
+        assertThat(samples).extracting(SeriesSample::timestamp).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(samples).extracting(SeriesSample::value).containsExactly(5.0, 3.0, 8.0, 1.0, 9.0);
+    }
+
+    @Test
+    void matchesTheReferenceAlgorithm() {
+        Random random = new Random(5);
+        for (int total : new int[] {10, 101, 1000, 4321}) {
+            for (int maxPoints : new int[] {3, 4, 7, 100}) {
+                long[] timestamps = new long[total];
+                double[] values = new double[total];
+                double walk = 0;
+                for (int i = 0; i < total; i++) {
+                    timestamps[i] = i * 1000L + random.nextInt(1000);
+                    walk += random.nextGaussian();
+                    values[i] = walk;
+                }
+
+                assertThat(downsample(timestamps, values, total, maxPoints))
+                        .as("%d points to %d", total, maxPoints)
+                        .containsExactlyElementsOf(reference(timestamps, values, maxPoints));
+            }
+        }
+    }
+
+    @Test
+    void keepsTheFirstAndLastPointsAndAPeak() {
+        int total = 10_000;
+        long[] timestamps = new long[total];
+        double[] values = new double[total];
+        for (int i = 0; i < total; i++) {
+            timestamps[i] = i;
+            values[i] = i == 4321 ? 1000 : Math.sin(i / 100.0);
+        }
+
+        List<SeriesSample> samples = downsample(timestamps, values, total, 50);
+
+        assertThat(samples).hasSize(50);
+        assertThat(samples.get(0)).isEqualTo(new SeriesSample(0, values[0]));
+        assertThat(samples.get(49)).isEqualTo(new SeriesSample(total - 1, values[total - 1]));
+        assertThat(samples).contains(new SeriesSample(4321, 1000));
+        assertThat(samples).extracting(SeriesSample::timestamp).isSorted();
+    }
+
+    @Test
+    void fewerPointsThanExpectedStillEndsWithTheLastPoint() {
+        long[] timestamps = new long[500];
+        double[] values = new double[500];
+        for (int i = 0; i < 500; i++) {
+            timestamps[i] = i;
+            values[i] = i % 7;
+        }
+
+        List<SeriesSample> samples = downsample(timestamps, values, 1000, 20);
+
+        assertThat(samples.size()).isLessThanOrEqualTo(20);
+        assertThat(samples.get(0).timestamp()).isZero();
+        assertThat(samples.get(samples.size() - 1).timestamp()).isEqualTo(499);
+        assertThat(samples).extracting(SeriesSample::timestamp).isSorted();
+    }
+
+    @Test
+    void emptyInputHasNoSamples() {
+        assertThat(new LttbDownsampler(0, 10).finish()).isEmpty();
+    }
+
+    @Test
+    void needsAtLeastThreePoints() {
+        assertThatThrownBy(() -> new LttbDownsampler(100, 2)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<SeriesSample> downsample(long[] timestamps, double[] values, int expected, int maxPoints) {
+        LttbDownsampler downsampler = new LttbDownsampler(expected, maxPoints);
+        for (int i = 0; i < timestamps.length; i++) {
+            downsampler.accept(timestamps[i], values[i]);
+        }
+        return downsampler.finish();
+    }
+
+    /**
+     * Textbook LTTB over the whole array, with the bucket boundaries pinned
+     * so the last bucket ends exactly before the last point
+     */
+    private static List<SeriesSample> reference(long[] timestamps, double[] values, int threshold) {
+        int n = timestamps.length;
+        List<SeriesSample> sampled = new ArrayList<>();
+        if (threshold >= n) {
+            for (int i = 0; i < n; i++) {
+                sampled.add(new SeriesSample(timestamps[i], values[i]));
+            }
+            return sampled;
+        }
+
+        double every = (double) (n - 2) / (threshold - 2);
+        int[] bounds = new int[threshold];
+        for (int k = 0; k < threshold - 2; k++) {
+            bounds[k] = (int) Math.floor(k * every) + 1;
+        }
+        bounds[threshold - 2] = n - 1;
+        bounds[threshold - 1] = n;
+
+        int a = 0;
+        sampled.add(new SeriesSample(timestamps[0], values[0]));
+        for (int i = 0; i < threshold - 2; i++) {
+            double averageTimestamp = 0;
+            double averageValue = 0;
+            for (int j = bounds[i + 1]; j < bounds[i + 2]; j++) {
+                averageTimestamp += timestamps[j];
+                averageValue += values[j];
+            }
+            averageTimestamp /= bounds[i + 2] - bounds[i + 1];
+            averageValue /= bounds[i + 2] - bounds[i + 1];
+
+            double maxArea = -1;
+            int chosen = bounds[i];
+            for (int j = bounds[i]; j < bounds[i + 1]; j++) {
+                double area = Math.abs(
+                        (timestamps[a] - averageTimestamp) * (values[j] - values[a])
+                      - (timestamps[a] - timestamps[j]) * (averageValue - values[a]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = j;
+                }
+            }
+            sampled.add(new SeriesSample(timestamps[chosen], values[chosen]));
+            a = chosen;
+        }
+        sampled.add(new SeriesSample(timestamps[n - 1], values[n - 1]));
+        return sampled;
+    }
+}
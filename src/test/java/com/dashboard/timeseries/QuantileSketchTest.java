@@ -0,0 +1,173 @@
+package com.dashboard.timeseries;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class QuantileSketchTest {
+
+    private static final double ACCURACY = 0.01;
+    private static final double[] QUANTILES = {0, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999, 1};
+
+    @Test
+    void quantilesAreWithinRelativeAccuracy() {
+        Random random = new Random(7);
+        double[] values = new double[100_000];
+        QuantileSketch sketch = new QuantileSketch(ACCURACY, 2048);
+        for (int i = 0; i < values.length; i++) {
+            // Log-normal, spanning several orders of magnitude
+            values[i] = Math.exp(random.nextGaussian() * 3);
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        assertThat(sketch.count()).isEqualTo(values.length);
+        for (double q : QUANTILES) {
+            double expected = values[(int) (q * (values.length - 1))];
+            assertThat(sketch.quantile(q)).isCloseTo(expected, within(expected * ACCURACY));
+        }
+    }
+
+    @Test
+    void negativeAndZeroValuesKeepTheirOrder() {
+        QuantileSketch sketch = new QuantileSketch(ACCURACY, 2048);
+        for (int i = -50; i <= 50; i++) {
+            sketch.add(i);
+        }
+
+        assertThat(sketch.quantile(0)).isCloseTo(-50, within(50 * ACCURACY));
+        assertThat(sketch.quantile(0.25)).isCloseTo(-25, within(25 * ACCURACY));
+        assertThat(sketch.quantile(0.5)).isZero();
+        assertThat(sketch.quantile(0.75)).isCloseTo(25, within(25 * ACCURACY));
+        assertThat(sketch.quantile(1)).isCloseTo(50, within(50 * ACCURACY));
+    }
+
+    @Test
+    void collapsingKeepsTheCountAndTheUpperQuantiles() {
+        QuantileSketch sketch = new QuantileSketch(ACCURACY, 64);
+        double[] values = new double[1000];
+        for (int i = 0; i < values.length; i++) {
+            // 1e-6 to 1e6: far more than 64 bins wide
+            values[i] = Math.pow(10, -6 + 12.0 * i / (values.length - 1));
+            sketch.add(values[i]);
+        }
+
+        assertThat(sketch.count()).isEqualTo(values.length);
+        for (double q : new double[] {0.99, 0.999, 1}) {
+            double expected = values[(int) (q * (values.length - 1))];
+            assertThat(sketch.quantile(q)).isCloseTo(expected, within(expected * ACCURACY));
+        }
+        // The smallest values were folded into the lowest remaining bin, so they read high
+        assertThat(sketch.quantile(0)).isGreaterThan(values[0]);
+    }
+
+    @Test
+    void collapsingGrowingDownwardKeepsTheLargestValues() {
+        QuantileSketch sketch = new QuantileSketch(ACCURACY, 64);
+        for (int i = 999; i >= 0; i--) {
+            sketch.add(Math.pow(10, -6 + 12.0 * i / 999));
+        }
+
+        assertThat(sketch.count()).isEqualTo(1000);
+        assertThat(sketch.quantile(1)).isCloseTo(1e6, within(1e6 * ACCURACY));
+    }
+
+    @Test
+    void removeRestoresTheSketchOfTheRemainingValues() {
+        QuantileSketch sketch = new QuantileSketch(ACCURACY, 2048);
+        QuantileSketch remaining = new QuantileSketch(ACCURACY, 2048);
+        for (int i = 1; i <= 1000; i++) {
+            sketch.add(i);
+            if (i % 3 != 0) {
+                remaining.add(i);
+            }
+        }
+        for (int i = 3; i <= 1000; i += 3) {
+            assertThat(sketch.remove(i)).isTrue();
+        }
+
+        assertThat(sketch.count()).isEqualTo(remaining.count());
+        for (double q : QUANTILES) {
+            assertThat(sketch.quantile(q)).isEqualTo(remaining.quantile(q));
+        }
+    }
+
+    @Test
+    void removeOfAnAbsentValueFails() {
+        QuantileSketch sketch = new QuantileSketch(ACCURACY, 2048);
+        assertThat(sketch.remove(5)).isFalse();
+        assertThat(sketch.remove(0)).isFalse();
+
+        sketch.add(5);
+        assertThat(sketch.remove(500)).isFalse();
+        assertThat(sketch.remove(-5)).isFalse();
+        assertThat(sketch.remove(5)).isTrue();
+        assertThat(sketch.remove(5)).isFalse();
+        assertThat(sketch.isEmpty()).isTrue();
+    }
+
+    @Test
+    void removeFindsValuesInCollapsedBins() {
+        QuantileSketch sketch = new QuantileSketch(ACCURACY, 64);
+        sketch.add(1e-6);
+        sketch.add(1e6);
+
+        // 1e-6 now shares the lowest bin with everything below it
+        assertThat(sketch.remove(1e-6)).isTrue();
+        assertThat(sketch.count()).isEqualTo(1);
+        assertThat(sketch.quantile(0)).isCloseTo(1e6, within(1e6 * ACCURACY));
+    }
+
+    @Test
+    void mergeEqualsTheSketchOfBothInputs() {
+        Random random = new Random(11);
+        QuantileSketch left = new QuantileSketch(ACCURACY, 2048);
+        QuantileSketch right = new QuantileSketch(ACCURACY, 2048);
+        QuantileSketch both = new QuantileSketch(ACCURACY, 2048);
+        for (int i = 0; i < 10_000; i++) {
+            double value = random.nextGaussian() * 100;
+            (i % 2 == 0 ? left : right).add(value);
+            both.add(value);
+        }
+
+        left.merge(right);
+
+        assertThat(left.count()).isEqualTo(both.count());
+        for (double q : QUANTILES) {
+            assertThat(left.quantile(q)).isEqualTo(both.quantile(q));
+        }
+    }
+
+    @Test
+    void mergeIntoASmallerSketchCollapses() {
+        QuantileSketch wide = new QuantileSketch(ACCURACY, 2048);
+        for (int i = 0; i < 1000; i++) {
+            wide.add(Math.pow(10, -6 + 12.0 * i / 999));
+        }
+        QuantileSketch narrow = new QuantileSketch(ACCURACY, 64);
+
+        narrow.merge(wide);
+
+        assertThat(narrow.count()).isEqualTo(1000);
+        assertThat(narrow.quantile(1)).isCloseTo(1e6, within(1e6 * ACCURACY));
+    }
+
+    @Test
+    void mergeRejectsADifferentAccuracy() {
+        QuantileSketch sketch = new QuantileSketch(0.01, 2048);
+        assertThatThrownBy(() -> sketch.merge(new QuantileSketch(0.02, 2048)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void emptySketchHasNoQuantiles() {
+        QuantileSketch sketch = new QuantileSketch(ACCURACY, 2048);
+        assertThat(sketch.quantile(0.5)).isNaN();
+        assertThatThrownBy(() -> sketch.quantile(1.5)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
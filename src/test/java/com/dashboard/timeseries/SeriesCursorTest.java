@@ -0,0 +1,79 @@
+package com.dashboard.timeseries;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SeriesCursorTest {
+
+    @Test
+    void pagesThroughTheWholeRange() {
+        ColumnarSeries series = new ColumnarSeries(64);
+        for (int i = 0; i < 1000; i++) {
+            series.add(i, i, i);
+        }
+
+        assertThat(timestamps(new SeriesCursor(series, 100, 899)))
+                .hasSize(800)
+                .startsWith(100L)
+                .endsWith(899L)
+                .isSorted();
+    }
+
+    @Test
+    void duplicateTimestampsAcrossPagesAreNeitherSkippedNorRepeated() {
+        ColumnarSeries series = new ColumnarSeries(64);
+        // 600 points on only three timestamps, so every page boundary falls inside a run
+        for (int i = 0; i < 600; i++) {
+            series.add(i / 200, i, i);
+        }
+
+        List<Double> values = new ArrayList<>();
+        for (SeriesCursor cursor = new SeriesCursor(series, 0, 10); cursor.hasNext(); cursor.advance()) {
+            values.add(cursor.value());
+        }
+
+        assertThat(values).hasSize(600).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void appendsMadeWhileReadingAreSeen() {
+        ColumnarSeries series = new ColumnarSeries(64);
+        for (int i = 0; i < 300; i++) {
+            series.add(i, i, i);
+        }
+
+        SeriesCursor cursor = new SeriesCursor(series, 0, Long.MAX_VALUE);
+        List<Long> seen = new ArrayList<>();
+        for (; cursor.hasNext(); cursor.advance()) {
+            seen.add(cursor.timestamp());
+            if (seen.size() == 10) {
+                for (int i = 300; i < 400; i++) {
+                    series.add(i, i, i);
+                }
+            }
+        }
+
+        assertThat(seen).hasSize(400).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void emptyRangeHasNoPoints() {
+        ColumnarSeries series = new ColumnarSeries(64);
+        series.add(5, 1, 1);
+
+        assertThat(new SeriesCursor(series, 6, 10).hasNext()).isFalse();
+        assertThat(new SeriesCursor(new ColumnarSeries(64), 0, 10).hasNext()).isFalse();
+    }
+
+    private static List<Long> timestamps(SeriesCursor cursor) {
+        List<Long> timestamps = new ArrayList<>();
+        for (; cursor.hasNext(); cursor.advance()) {
+            timestamps.add(cursor.timestamp());
+        }
+        return timestamps;
+    }
+}
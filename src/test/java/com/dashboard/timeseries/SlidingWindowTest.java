@@ -0,0 +1,84 @@
+package com.dashboard.timeseries;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class SlidingWindowTest {
+
+    @Test
+    void matchesBruteForceOverEveryPrefix() {
+        Random random = new Random(13);
+        double[] stream = new double[2000];
+        for (int i = 0; i < stream.length; i++) {
+            stream[i] = random.nextGaussian() * 10 + (i % 100 == 0 ? 500 : 0);
+        }
+
+        for (int size : new int[] {1, 2, 7, 50}) {
+            SlidingWindow window = new SlidingWindow(size);
+            double alpha = 2.0 / (size + 1);
+            double ema = stream[0];
+            for (int i = 0; i < stream.length; i++) {
+                window.add(stream[i]);
+                if (i > 0) {
+                    ema += alpha * (stream[i] - ema);
+                }
+                double[] contents = Arrays.copyOfRange(stream, Math.max(0, i - size + 1), i + 1);
+
+                assertThat(window.count()).isEqualTo(contents.length);
+                assertThat(window.mean()).isCloseTo(mean(contents), within(1e-9));
+                assertThat(window.stdDev()).isCloseTo(stdDev(contents), within(1e-6));
+                assertThat(window.min()).isEqualTo(Arrays.stream(contents).min().getAsDouble());
+                assertThat(window.max()).isEqualTo(Arrays.stream(contents).max().getAsDouble());
+                assertThat(window.ema()).isCloseTo(ema, within(1e-9));
+            }
+        }
+    }
+
+    @Test
+    void largeValuesKeepTheirPrecisionOverManyLaps() {
+        SlidingWindow window = new SlidingWindow(10);
+        // Large values with a small spread are where cancellation errors show
+        for (int i = 0; i < 1_000_000; i++) {
+            window.add(1e9 + (i % 10));
+        }
+
+        assertThat(window.mean()).isCloseTo(1e9 + 4.5, within(1e-6));
+        assertThat(window.stdDev()).isCloseTo(Math.sqrt(8.25), within(1e-3));
+    }
+
+    @Test
+    void emptyWindowHasNoStatistics() {
+        SlidingWindow window = new SlidingWindow(5);
+
+        assertThat(window.count()).isZero();
+        assertThat(window.mean()).isNaN();
+        assertThat(window.stdDev()).isNaN();
+        assertThat(window.min()).isNaN();
+        assertThat(window.max()).isNaN();
+        assertThat(window.ema()).isNaN();
+    }
+
+    @Test
+    void sizeMustBePositive() {
+        assertThatThrownBy(() -> new SlidingWindow(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static double mean(double[] values) {
+        return Arrays.stream(values).sum() / values.length;
+    }
+
+    private static double stdDev(double[] values) {
+        double mean = mean(values);
+        double squares = 0;
+        for (double value : values) {
+            squares += (value - mean) * (value - mean);
+        }
+        return Math.sqrt(squares / values.length);
+    }
+}